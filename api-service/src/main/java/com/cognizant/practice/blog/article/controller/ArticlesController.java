@@ -1,49 +1,226 @@
 package com.cognizant.practice.blog.article.controller;
 
 import com.cognizant.practice.blog.article.dto.Article;
+import com.cognizant.practice.blog.article.dto.ArticleFacets;
+import com.cognizant.practice.blog.article.dto.ArticlePage;
+import com.cognizant.practice.blog.article.dto.ArticlePatch;
 import com.cognizant.practice.blog.article.dto.ArticleRequest;
+import com.cognizant.practice.blog.article.dto.ArticleSummary;
+import com.cognizant.practice.blog.article.dto.ArticleVersion;
+import com.cognizant.practice.blog.article.dto.ArticleViewCount;
+import com.cognizant.practice.blog.article.dto.ArticleViews;
+import com.cognizant.practice.blog.article.dto.ImportReport;
+import com.cognizant.practice.blog.article.dto.TrendingArticle;
+import com.cognizant.practice.blog.article.service.ArticleExportService;
+import com.cognizant.practice.blog.article.service.ArticleImportService;
+import com.cognizant.practice.blog.article.service.ArticleTrendingService;
+import com.cognizant.practice.blog.article.service.ArticleViewService;
 import com.cognizant.practice.blog.article.service.ArticlesService;
+import com.cognizant.practice.blog.config.ETags;
+import com.cognizant.practice.blog.live.service.LiveUpdateService;
+import com.cognizant.practice.blog.storage.dto.UploadInitRequest;
+import com.cognizant.practice.blog.storage.dto.UploadSession;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.micrometer.common.util.StringUtils;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 public class ArticlesController {
 
     private final ArticlesService articlesService;
+    private final ArticleExportService articleExportService;
+    private final ArticleImportService articleImportService;
+    private final ArticleViewService articleViewService;
+    private final ArticleTrendingService articleTrendingService;
+    private final LiveUpdateService liveUpdateService;
 
-    public ArticlesController(ArticlesService articlesService) {
+    public ArticlesController(ArticlesService articlesService, ArticleExportService articleExportService, ArticleImportService articleImportService,
+                              ArticleViewService articleViewService, ArticleTrendingService articleTrendingService,
+                              LiveUpdateService liveUpdateService) {
         this.articlesService = articlesService;
+        this.articleExportService = articleExportService;
+        this.articleImportService = articleImportService;
+        this.articleViewService = articleViewService;
+        this.articleTrendingService = articleTrendingService;
+        this.liveUpdateService = liveUpdateService;
     }
 
-    // GET /articles -> list of articles in memory = List<Articles> => json array
+    // GET /articles -> list of article summaries = List<ArticleSummary> => json array
     @GetMapping(value="/articles")
-    public List<Article> printArticles(@RequestParam(defaultValue = "10") int size, @RequestParam(defaultValue = "0") int from,
+    public List<ArticleSummary> printArticles(@RequestParam(defaultValue = "10") int size, @RequestParam(defaultValue = "0") int from,
                                        @RequestParam(required = false) String title, @RequestParam(required = false) String author,
                                        @RequestParam(required = false) String category, @RequestParam(required = false) LocalDateTime createdDate,
-                                       @RequestParam(defaultValue = "createdDate desc") String sort) {
+                                       @RequestParam(defaultValue = "createdDate desc") String sort, WebRequest request) {
+        if (request.checkNotModified(articlesService.getArticlesETag("offset", size, from, title, author, category, createdDate, sort, false),
+                articlesService.getArticlesLastModified())) {
+            return null;
+        }
 
         return articlesService.getArticlesParams(size, from, title, author, category, createdDate, sort);
     }
+
+    // GET /articles?paging=cursor -> keyset paging, pass the returned nextCursor as "after" to continue
+    @GetMapping(value="/articles", params="paging=cursor")
+    public ArticlePage printArticlesAfter(@RequestParam(defaultValue = "10") int size, @RequestParam(required = false) String after,
+                                          @RequestParam(required = false) String title, @RequestParam(required = false) String author,
+                                          @RequestParam(required = false) String category, @RequestParam(required = false) LocalDateTime createdDate,
+                                          @RequestParam(defaultValue = "createdDate desc") String sort,
+                                          @RequestParam(defaultValue = "false") boolean withTotal, WebRequest request) {
+        if (request.checkNotModified(articlesService.getArticlesETag("cursor", size, after, title, author, category, createdDate, sort, withTotal),
+                articlesService.getArticlesLastModified())) {
+            return null;
+        }
+
+        return articlesService.getArticlesAfter(size, after, title, author, category, createdDate, sort, withTotal);
+    }
+
+    // GET /articles?paging=slice -> offset paging with hasNext instead of a count, withTotal=true adds a cached approximate total
+    @GetMapping(value="/articles", params="paging=slice")
+    public ArticlePage printArticlesSlice(@RequestParam(defaultValue = "10") int size, @RequestParam(defaultValue = "0") int from,
+                                          @RequestParam(required = false) String title, @RequestParam(required = false) String author,
+                                          @RequestParam(required = false) String category, @RequestParam(required = false) LocalDateTime createdDate,
+                                          @RequestParam(defaultValue = "createdDate desc") String sort,
+                                          @RequestParam(defaultValue = "false") boolean withTotal, WebRequest request) {
+        if (request.checkNotModified(articlesService.getArticlesETag("slice", size, from, title, author, category, createdDate, sort, withTotal),
+                articlesService.getArticlesLastModified())) {
+            return null;
+        }
+
+        return articlesService.getArticlesSlice(size, from, title, author, category, createdDate, sort, withTotal);
+    }
+
+    // GET /articles/facets -> article counts per category, author and creation month, same filters as GET /articles
+    @GetMapping(value="/articles/facets")
+    public ArticleFacets printFacets(@RequestParam(required = false) String title, @RequestParam(required = false) String author,
+                                     @RequestParam(required = false) String category, @RequestParam(required = false) LocalDateTime createdDate) {
+        return articlesService.getFacets(title, author, category, createdDate);
+    }
+
+    // GET /articles/export -> every article as newline delimited json, gzipped if the client accepts it
+    @GetMapping(value="/articles/export")
+    public ResponseEntity<StreamingResponseBody> exportArticles(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out)) {
+                    articleExportService.exportArticles(compressed);
+                }
+            } else {
+                articleExportService.exportArticles(out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"articles.ndjson\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return response.body(body);
+    }
+
+    // POST /articles/import -> newline delimited json (same shape as the export, comments nested), gzipped if Content-Encoding says so
+        // lines that fail are reported back, the rest is imported
+    @PostMapping(value="/articles/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public ImportReport importArticles(InputStream body, @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding) throws IOException {
+        if (contentEncoding != null && contentEncoding.contains("gzip")) {
+            try (InputStream decompressed = new GZIPInputStream(body)) {
+                return articleImportService.importArticles(decompressed);
+            }
+        }
+
+        return articleImportService.importArticles(body);
+    }
+
     // GET /articles/<id> -> just the id'th article = Article => single json
         // id not found => error 404 http
         // id not found => throw exception not found
+    // The ETag is "<version>.<hash of the comment counters and the author and editor updates>", If-Match on PUT / PATCH takes it back. If-None-Match and If-Modified-Since
+    // are answered from the version lookup, before the article is loaded. Every read of an existing article counts as a view,
+    // revalidations included.
     @GetMapping(value="/articles/{id}")
-    public Article printArticleById(@PathVariable UUID id) {
+    public Article printArticleById(@PathVariable UUID id, WebRequest request) {
+        Optional<ArticleVersion> version = articlesService.getArticleVersion(id);
+        if (version.isPresent()) {
+            articleViewService.recordView(id);
+            if (request.checkNotModified(version.get().etag(), version.get().lastModified())) {
+                return null;
+            }
+        }
+
         return articlesService.getArticleById(id);
     }
 
+    // GET /articles/<id>/views -> view count of one article, not cached, reading it doesn't count as a view
+    @GetMapping(value="/articles/{id}/views")
+    public ArticleViewCount printViews(@PathVariable UUID id) {
+        if (articlesService.getArticleVersion(id).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Article not found");
+        }
+
+        return new ArticleViewCount(id, articleViewService.getViews(id));
+    }
+
+    // GET /articles/most-viewed -> articles with the highest view counts, ranking lags by up to one flush interval
+    @GetMapping(value="/articles/most-viewed")
+    public List<ArticleViews> printMostViewed(@RequestParam(defaultValue = "10") int size) {
+        return articleViewService.getMostViewed(size);
+    }
+
+    // GET /articles/trending -> articles ranked by decayed views, comments and publication date, at most blog.trending.size
+    @GetMapping(value="/articles/trending")
+    public List<TrendingArticle> printTrending(@RequestParam(defaultValue = "10") int size) {
+        return articleTrendingService.getTrending(size);
+    }
+
+    // GET /articles/events -> text/event-stream of article-created / article-updated / article-deleted, instead of polling the list
+    @GetMapping(value="/articles/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamArticleEvents() {
+        return liveUpdateService.subscribeFeed();
+    }
+
+    // GET /articles/<id>/events -> text/event-stream of comment-created / comment-edited / comment-deleted and the article's
+        // own article-updated / article-deleted, the stream ends after the delete
+    @GetMapping(value="/articles/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamArticleEvents(@PathVariable UUID id) {
+        if (articlesService.getArticleVersion(id).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Article not found");
+        }
+
+        return liveUpdateService.subscribeArticle(id);
+    }
+
+    // POST /articles/summaries/rebuild -> rewrite every stored summary in the current format, runs in the background
+    @PostMapping(value="/articles/summaries/rebuild")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void rebuildSummaries() {
+        articlesService.rebuildSummaries();
+    }
+
     // DELETE /articles/<id> -> delete article from list = void
         // id not found => error
     @DeleteMapping(value="/articles/{id}")
@@ -87,9 +264,19 @@ public class ArticlesController {
     // update fields from request
     // updatedDate -> current date
     // return updated article
+    // If-Match: "<version>" -> 412 when the article has moved on since that version, 409 when a concurrent edit won the race
     @PutMapping(value = "/articles/{id}")
-    public Article updateArticle(@PathVariable UUID id, @RequestBody ArticleRequest articleRequest, Principal principal) {
-        return articlesService.updateArticle(id, articleRequest, principal);
+    public Article updateArticle(@PathVariable UUID id, @RequestBody ArticleRequest articleRequest,
+                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, Principal principal) {
+        return articlesService.updateArticle(id, articleRequest, ETags.parseVersion(ifMatch), principal);
+    }
+
+    // PATCH /articles/{id} -> JSON Merge Patch of title, category and content, or contentEdits splices of the content.
+    // contentEdits require If-Match with the version they were made against.
+    @PatchMapping(value = "/articles/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public Article patchArticle(@PathVariable UUID id, @RequestBody JsonNode patch,
+                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, Principal principal) {
+        return articlesService.patchArticle(id, ArticlePatch.from(patch), ETags.parseVersion(ifMatch), principal);
     }
 
     @PostMapping(value="/articles/{id}/upload-image")
@@ -109,4 +296,36 @@ public class ArticlesController {
     public Article uploadMedia(@RequestParam("file") MultipartFile file, @PathVariable UUID id, Principal principal) {
         return articlesService.uploadMedia(file, id, principal);
     }
+
+    // Resumable media upload: POST starts it, PUT ?offset= sends one chunk (raw bytes, X-Chunk-Sha256 = hex sha-256 of the chunk),
+    // GET tells which offsets are still missing after a dropped connection, POST /complete attaches the file to the article
+    @PostMapping(value="/articles/{id}/media-uploads")
+    public UploadSession startMediaUpload(@PathVariable UUID id, @RequestBody UploadInitRequest request, Principal principal) {
+        return articlesService.startMediaUpload(id, request, principal);
+    }
+
+    @GetMapping(value="/articles/{id}/media-uploads/{uploadId}")
+    public UploadSession getMediaUpload(@PathVariable UUID id, @PathVariable UUID uploadId, Principal principal) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Login required");
+        }
+
+        return articlesService.getMediaUpload(id, uploadId, principal);
+    }
+
+    @PutMapping(value="/articles/{id}/media-uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public UploadSession writeMediaChunk(@PathVariable UUID id, @PathVariable UUID uploadId, @RequestParam long offset,
+                                         @RequestHeader("X-Chunk-Sha256") String sha256, InputStream body, Principal principal) {
+        return articlesService.writeMediaChunk(id, uploadId, offset, sha256, body, principal);
+    }
+
+    @PostMapping(value="/articles/{id}/media-uploads/{uploadId}/complete")
+    public Article completeMediaUpload(@PathVariable UUID id, @PathVariable UUID uploadId, Principal principal) {
+        return articlesService.completeMediaUpload(id, uploadId, principal);
+    }
+
+    @DeleteMapping(value="/articles/{id}/media-uploads/{uploadId}")
+    public void cancelMediaUpload(@PathVariable UUID id, @PathVariable UUID uploadId, Principal principal) {
+        articlesService.cancelMediaUpload(id, uploadId, principal);
+    }
 }
@@ -23,6 +23,9 @@ public class ArticleConvertor {
                 .cropScale(articleEntity.getCropScale())
                 .author(UserConvertor.toDto(articleEntity.getAuthor()))
                 .editor(UserConvertor.toDto(articleEntity.getEditor()))
+                .version(articleEntity.getVersion())
+                .commentCount(articleEntity.getCommentCount())
+                .lastCommentAt(articleEntity.getLastCommentAt())
                 .build();
     }
 
@@ -44,6 +47,9 @@ public class ArticleConvertor {
                 .cropScale(article.getCropScale())
                 .author(UserConvertor.toEntity(article.getAuthor()))
                 .editor(UserConvertor.toEntity(article.getEditor()))
+                .version(article.getVersion())
+                .commentCount(article.getCommentCount() == null ? 0 : article.getCommentCount())
+                .lastCommentAt(article.getLastCommentAt())
                 .build();
     }
 }
@@ -1,16 +1,19 @@
 package com.cognizant.practice.blog.article.dto;
 
+import com.cognizant.practice.blog.storage.dto.ImageVariant;
 import com.cognizant.practice.blog.user.dto.User;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Article {
     private UUID id;
 
@@ -33,4 +36,16 @@ public class Article {
 
     private User author;
     private User editor;
+
+    // Send back in If-Match when editing
+    private Long version;
+
+    private Long commentCount;
+    private LocalDateTime lastCommentAt;
+
+    // Cropped, resized copies of the cover, see ImageVariant
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Map<String, String> getImageVariants() {
+        return ImageVariant.urls(ImageVariant.COVER, imageUrl, cropX, cropY, cropWidth, cropHeight);
+    }
 }
@@ -0,0 +1,98 @@
+package com.cognizant.practice.blog.article.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Opaque keyset position: the sort key values of the last row of a page, followed by its id as tiebreaker
+@Getter
+@AllArgsConstructor
+public class ArticleCursor {
+    // Only non-null columns can be used for seeking, otherwise rows with nulls would be skipped
+    public static final Set<String> SEEKABLE_FIELDS = Set.of("createdDate", "updatedDate", "title");
+
+    private final List<Comparable<?>> values;
+
+    // Appends the id tiebreaker to the requested sort so every position in the ordering is unique
+    public static Sort seekSort(Sort sort) {
+        Sort.Direction tiebreak = Sort.Direction.ASC;
+        for (Sort.Order order : sort) {
+            if (!SEEKABLE_FIELDS.contains(order.getProperty())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor paging does not support sorting by " + order.getProperty());
+            }
+            tiebreak = order.getDirection();
+        }
+
+        return sort.and(Sort.by(tiebreak, "id"));
+    }
+
+    public static String encode(ArticleSummary last, Sort seekSort) {
+        List<String> parts = new ArrayList<>();
+        for (Sort.Order order : seekSort) {
+            parts.add(encodePart(String.valueOf(valueOf(last, order.getProperty()))));
+        }
+
+        return String.join(".", parts);
+    }
+
+    public static ArticleCursor decode(String token, Sort seekSort) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        String[] parts = token.split("\\.");
+        List<Sort.Order> orders = seekSort.toList();
+        if (parts.length != orders.size()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+
+        List<Comparable<?>> values = new ArrayList<>();
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                values.add(parse(orders.get(i).getProperty(), decodePart(parts[i])));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+
+        return new ArticleCursor(values);
+    }
+
+    private static Comparable<?> valueOf(ArticleSummary article, String field) {
+        return switch (field) {
+            case "createdDate" -> article.getCreatedDate();
+            case "updatedDate" -> article.getUpdatedDate();
+            case "title" -> article.getTitle();
+            case "id" -> article.getId();
+            default -> throw new IllegalArgumentException(field);
+        };
+    }
+
+    private static Comparable<?> parse(String field, String value) {
+        return switch (field) {
+            case "createdDate", "updatedDate" -> LocalDateTime.parse(value);
+            case "title" -> value;
+            case "id" -> UUID.fromString(value);
+            default -> throw new IllegalArgumentException(field);
+        };
+    }
+
+    private static String encodePart(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodePart(String part) {
+        return new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8);
+    }
+}
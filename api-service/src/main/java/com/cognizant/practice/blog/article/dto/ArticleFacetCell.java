@@ -0,0 +1,5 @@
+package com.cognizant.practice.blog.article.dto;
+
+// Number of articles sharing one (category, author, creation month) combination
+public record ArticleFacetCell(String category, String author, Integer year, Integer month, Long count) {
+}
@@ -0,0 +1,20 @@
+package com.cognizant.practice.blog.article.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ArticleFacets {
+    // Most used first
+    private Map<String, Long> categories;
+    private Map<String, Long> authors;
+    // "yyyy-MM", newest first
+    private Map<String, Long> months;
+}
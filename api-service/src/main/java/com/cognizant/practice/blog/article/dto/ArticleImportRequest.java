@@ -0,0 +1,11 @@
+package com.cognizant.practice.blog.article.dto;
+
+import com.cognizant.practice.blog.comment.dto.CommentImportRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One line of an import stream, users are referenced by username
+public record ArticleImportRequest(String title, String content, String category, String author, LocalDateTime createdDate,
+                                   List<CommentImportRequest> comments) {
+}
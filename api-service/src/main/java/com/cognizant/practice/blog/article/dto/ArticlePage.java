@@ -0,0 +1,23 @@
+package com.cognizant.practice.blog.article.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ArticlePage {
+    private List<ArticleSummary> articles;
+
+    private boolean hasNext;
+    // Pass back as "after" to get the next page, null on the last page
+    private String nextCursor;
+
+    // Only filled in when asked for, may lag behind recent writes
+    private Long approximateTotal;
+}
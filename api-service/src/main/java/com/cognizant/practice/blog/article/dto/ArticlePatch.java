@@ -0,0 +1,132 @@
+package com.cognizant.practice.blog.article.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Body of PATCH /articles/{id}: a JSON Merge Patch (RFC 7396) of title, category and content, where a missing
+// member stays as it is and null clears it. contentEdits is the incremental alternative to content, splices
+// against the stored version so an autosave only carries what was typed.
+public class ArticlePatch {
+    private String title;
+    private boolean hasTitle;
+    private String category;
+    private boolean hasCategory;
+    private String content;
+    private boolean hasContent;
+    private List<ContentEdit> contentEdits = List.of();
+
+    public static ArticlePatch from(JsonNode body) {
+        if (body == null || !body.isObject()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Patch must be a JSON object");
+        }
+
+        ArticlePatch patch = new ArticlePatch();
+        for (Map.Entry<String, JsonNode> member : body.properties()) {
+            JsonNode value = member.getValue();
+            switch (member.getKey()) {
+                case "title" -> {
+                    patch.hasTitle = true;
+                    patch.title = text(member.getKey(), value);
+                }
+                case "category" -> {
+                    patch.hasCategory = true;
+                    patch.category = text(member.getKey(), value);
+                }
+                case "content" -> {
+                    patch.hasContent = true;
+                    patch.content = text(member.getKey(), value);
+                }
+                case "contentEdits" -> patch.contentEdits = edits(value);
+                default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field " + member.getKey());
+            }
+        }
+
+        if (patch.hasContent && !patch.contentEdits.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Send either content or contentEdits");
+        }
+        return patch;
+    }
+
+    private static String text(String name, JsonNode value) {
+        if (value.isNull()) {
+            return null;
+        }
+        if (!value.isTextual()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be a string");
+        }
+        return value.textValue();
+    }
+
+    private static List<ContentEdit> edits(JsonNode value) {
+        if (value.isNull()) {
+            return List.of();
+        }
+        if (!value.isArray()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "contentEdits must be an array");
+        }
+
+        List<ContentEdit> edits = new ArrayList<>(value.size());
+        for (JsonNode edit : value) {
+            JsonNode at = edit.get("at");
+            JsonNode delete = edit.get("delete");
+            JsonNode insert = edit.get("insert");
+            if (!isInt(at) || (delete != null && !isInt(delete))
+                    || (insert != null && !insert.isNull() && !insert.isTextual())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Content edits need an integer at, an optional integer delete and an optional string insert");
+            }
+            edits.add(new ContentEdit(at.intValue(), delete == null ? 0 : delete.intValue(),
+                    insert == null || insert.isNull() ? "" : insert.textValue()));
+        }
+        return edits;
+    }
+
+    // canConvertToInt alone lets 1.5 through and truncates it
+    private static boolean isInt(JsonNode value) {
+        return value != null && value.isIntegralNumber() && value.canConvertToInt();
+    }
+
+    // The edits in order, null when they don't fit the content they were made against
+    public static String apply(String content, List<ContentEdit> edits) {
+        StringBuilder result = new StringBuilder(content == null ? "" : content);
+        for (ContentEdit edit : edits) {
+            if (edit.at() < 0 || edit.delete() < 0 || edit.at() > result.length() || edit.delete() > result.length() - edit.at()) {
+                return null;
+            }
+            result.replace(edit.at(), edit.at() + edit.delete(), edit.insert());
+        }
+        return result.toString();
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public boolean hasTitle() {
+        return hasTitle;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public boolean hasCategory() {
+        return hasCategory;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public boolean hasContent() {
+        return hasContent;
+    }
+
+    public List<ContentEdit> getContentEdits() {
+        return contentEdits;
+    }
+}
@@ -1,9 +1,14 @@
 package com.cognizant.practice.blog.article.dto;
 
 import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ArticleSpecification {
 
@@ -27,5 +32,30 @@ public class ArticleSpecification {
     public static Specification<ArticleEntity> hasCategory(String category) {
         return (root, query, cb) ->
                 category == null ? null : cb.equal(root.get("category"), category);
-    }   
+    }
+
+    // Keyset seek: (k1, k2, ..., id) strictly beyond the cursor in the given sort order
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<ArticleEntity> after(ArticleCursor cursor, Sort seekSort) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return null;
+            }
+
+            List<Predicate> alternatives = new ArrayList<>();
+            List<Predicate> equalPrefix = new ArrayList<>();
+            int i = 0;
+            for (Sort.Order order : seekSort) {
+                Path<Comparable> path = root.get(order.getProperty());
+                Comparable value = cursor.getValues().get(i++);
+
+                List<Predicate> terms = new ArrayList<>(equalPrefix);
+                terms.add(order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value));
+                alternatives.add(cb.and(terms.toArray(new Predicate[0])));
+                equalPrefix.add(cb.equal(path, value));
+            }
+
+            return cb.or(alternatives.toArray(new Predicate[0]));
+        };
+    }
 }
\ No newline at end of file
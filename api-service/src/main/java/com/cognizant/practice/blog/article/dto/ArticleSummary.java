@@ -0,0 +1,65 @@
+package com.cognizant.practice.blog.article.dto;
+
+import com.cognizant.practice.blog.storage.dto.ImageVariant;
+import com.cognizant.practice.blog.user.dto.UserSummary;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+// List view of an article: everything a card needs, without the content body or full user objects.
+// summary is the leading part of the content in the same format, so cards render it like the content.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ArticleSummary {
+    private UUID id;
+
+    private String title;
+    private String summary;
+    private LocalDateTime createdDate;
+    private LocalDateTime updatedDate;
+
+    private String imageUrl;
+    private String category;
+    // Crop metadata for cover image display
+    private Double cropX;
+    private Double cropY;
+    private Double cropWidth;
+    private Double cropHeight;
+    private Double cropScale;
+
+    private UUID authorId;
+    private String authorUsername;
+    // Name and avatar for the card, the full users are only on the article itself
+    private UserSummary author;
+    private UserSummary editor;
+
+    private long commentCount;
+    private LocalDateTime lastCommentAt;
+
+    // Flat constructor for the criteria projection, which can't build the nested users itself
+    public ArticleSummary(UUID id, String title, String summary, LocalDateTime createdDate, LocalDateTime updatedDate,
+                          String imageUrl, String category, Double cropX, Double cropY, Double cropWidth, Double cropHeight, Double cropScale,
+                          UUID authorId, String authorUsername, String authorFirstName, String authorLastName, String authorProfilePicture,
+                          UUID editorId, String editorUsername, String editorFirstName, String editorLastName, String editorProfilePicture,
+                          long commentCount, LocalDateTime lastCommentAt) {
+        this(id, title, summary, createdDate, updatedDate, imageUrl, category, cropX, cropY, cropWidth, cropHeight, cropScale,
+                authorId, authorUsername,
+                UserSummary.of(authorId, authorUsername, authorFirstName, authorLastName, authorProfilePicture),
+                UserSummary.of(editorId, editorUsername, editorFirstName, editorLastName, editorProfilePicture),
+                commentCount, lastCommentAt);
+    }
+
+    // Cropped, resized copies of the cover, list pages should use the card or thumbnail
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Map<String, String> getImageVariants() {
+        return ImageVariant.urls(ImageVariant.COVER, imageUrl, cropX, cropY, cropWidth, cropHeight);
+    }
+}
@@ -0,0 +1,40 @@
+package com.cognizant.practice.blog.article.dto;
+
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.config.ETags;
+import com.cognizant.practice.blog.user.entity.UserEntity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+// What the ETag of an article is made of. Comment counters and the embedded author and editor change without a
+// new version, they go into the ETag next to it so a 304 never confirms a stale counter, name or avatar.
+// Last-Modified is the latest of the dates at which any of them changed.
+public record ArticleVersion(long version, long commentCount, LocalDateTime lastCommentAt,
+                             LocalDateTime authorUpdated, LocalDateTime editorUpdated,
+                             LocalDateTime updatedDate, LocalDateTime commentStatsChangedAt) {
+    public static ArticleVersion of(ArticleEntity article) {
+        return new ArticleVersion(article.getVersion() == null ? 0 : article.getVersion(), article.getCommentCount(), article.getLastCommentAt(),
+                updatedDate(article.getAuthor()), updatedDate(article.getEditor()),
+                article.getUpdatedDate(), article.getCommentStatsChangedAt());
+    }
+
+    public String etag() {
+        return ETags.ofVersion(version, commentCount, lastCommentAt, authorUpdated, editorUpdated);
+    }
+
+    // Epoch millis for Last-Modified, -1 (no header) when none of the dates is known
+    public long lastModified() {
+        return Stream.of(updatedDate, commentStatsChangedAt, authorUpdated, editorUpdated)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .map(date -> date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .orElse(-1L);
+    }
+
+    private static LocalDateTime updatedDate(UserEntity user) {
+        return user == null ? null : user.getUpdatedDate();
+    }
+}
@@ -0,0 +1,7 @@
+package com.cognizant.practice.blog.article.dto;
+
+import java.util.UUID;
+
+// Body of GET /articles/{id}/views, kept out of the article so its ETag doesn't change with every view
+public record ArticleViewCount(UUID id, long views) {
+}
@@ -0,0 +1,5 @@
+package com.cognizant.practice.blog.article.dto;
+
+// Entry of GET /articles/most-viewed
+public record ArticleViews(ArticleSummary article, long views) {
+}
@@ -0,0 +1,6 @@
+package com.cognizant.practice.blog.article.dto;
+
+// Replaces `delete` characters at `at` with `insert`. Offsets are string indices (UTF-16 units, as in
+// JavaScript) into the content as left by the previous edit of the same patch.
+public record ContentEdit(int at, int delete, String insert) {
+}
@@ -0,0 +1,4 @@
+package com.cognizant.practice.blog.article.dto;
+
+public record ImportError(long line, String message) {
+}
@@ -0,0 +1,23 @@
+package com.cognizant.practice.blog.article.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImportReport {
+    private long importedArticles;
+    private long importedComments;
+    private long failedLines;
+
+    // Only the first errors are kept, failedLines has the full count
+    @Builder.Default
+    private List<ImportError> errors = new ArrayList<>();
+}
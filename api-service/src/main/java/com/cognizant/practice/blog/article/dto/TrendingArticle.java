@@ -0,0 +1,5 @@
+package com.cognizant.practice.blog.article.dto;
+
+// Entry of GET /articles/trending, score is the decayed weight of recent views, comments and publication
+public record TrendingArticle(ArticleSummary article, double score) {
+}
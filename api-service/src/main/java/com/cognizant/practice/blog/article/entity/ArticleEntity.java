@@ -4,6 +4,7 @@ import com.cognizant.practice.blog.comment.entity.CommentEntity;
 import com.cognizant.practice.blog.user.dto.User;
 import com.cognizant.practice.blog.user.entity.UserEntity;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import jdk.jfr.ContentType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,7 +15,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+// Updates only set the changed columns, a title or category edit doesn't rewrite the content
 @Entity
+@DynamicUpdate
 @Table(name = "ARTICLES")
 @Data
 @AllArgsConstructor
@@ -50,9 +53,23 @@ public class ArticleEntity {
     @OneToMany(mappedBy = "articleEntity", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CommentEntity> comments;
 
-    @ManyToOne
+    // Lazy so plain queries don't fan out into per-row user selects, repositories fetch them through entity graphs
+    @ManyToOne(fetch = FetchType.LAZY)
     private UserEntity author;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private UserEntity editor;
+
+    // Optimistic locking, every update checks and bumps it. Rows from before the column start at 0.
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version;
+
+    // Kept up to date by CommentsService with in-place updates, so listings never count comments.
+    // Not versioned and, with @DynamicUpdate, never overwritten by an article edit.
+    @Column(columnDefinition = "bigint default 0 not null")
+    private long commentCount;
+    private LocalDateTime lastCommentAt;
+    // When the two above last changed, deletions included, for Last-Modified
+    private LocalDateTime commentStatsChangedAt;
 }
@@ -0,0 +1,25 @@
+package com.cognizant.practice.blog.article.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+// Persisted view total of one article. Kept out of ARTICLES so counting never locks or rewrites the article row.
+@Entity
+@Table(name = "ARTICLE_VIEWS")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ArticleViewEntity {
+    @Id
+    private UUID articleId;
+
+    private long views;
+}
@@ -0,0 +1,11 @@
+package com.cognizant.practice.blog.article.repository;
+
+import com.cognizant.practice.blog.article.dto.ArticleFacetCell;
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ArticleFacetRepository {
+    List<ArticleFacetCell> findFacetCells(Specification<ArticleEntity> specification);
+}
@@ -0,0 +1,50 @@
+package com.cognizant.practice.blog.article.repository;
+
+import com.cognizant.practice.blog.article.dto.ArticleFacetCell;
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.user.entity.UserEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ArticleFacetRepositoryImpl implements ArticleFacetRepository {
+    private final EntityManager entityManager;
+
+    public ArticleFacetRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // GROUP BY category, author, year, month: the finest grain every facet can be rolled up from
+    @Override
+    public List<ArticleFacetCell> findFacetCells(Specification<ArticleEntity> specification) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<ArticleFacetCell> query = cb.createQuery(ArticleFacetCell.class);
+        Root<ArticleEntity> root = query.from(ArticleEntity.class);
+        Join<ArticleEntity, UserEntity> author = root.join("author", JoinType.LEFT);
+
+        Expression<LocalDateTime> createdDate = root.get("createdDate");
+        Expression<String> category = root.get("category");
+        Expression<String> username = author.get("username");
+        Expression<Integer> year = cb.year(createdDate);
+        Expression<Integer> month = cb.month(createdDate);
+
+        query.select(cb.construct(ArticleFacetCell.class, category, username, year, month, cb.count(root)));
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(category, username, year, month);
+
+        return entityManager.createQuery(query).getResultList();
+    }
+}
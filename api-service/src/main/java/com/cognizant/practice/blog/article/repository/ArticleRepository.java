@@ -1,21 +1,150 @@
 package com.cognizant.practice.blog.article.repository;
 
+import com.cognizant.practice.blog.article.dto.ArticleVersion;
 import com.cognizant.practice.blog.article.entity.ArticleEntity;
 import com.cognizant.practice.blog.user.dto.User;
 import com.cognizant.practice.blog.user.entity.UserEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ArticleRepository extends JpaRepository<ArticleEntity, UUID>, JpaSpecificationExecutor<ArticleEntity> {
+public interface ArticleRepository extends JpaRepository<ArticleEntity, UUID>, JpaSpecificationExecutor<ArticleEntity>, ArticleSummaryRepository, ArticleFacetRepository {
+    // author and editor are lazy, every read that gets converted to a dto fetches them in the same select
+    @Override
+    @EntityGraph(attributePaths = {"author", "editor"})
+    Optional<ArticleEntity> findById(UUID id);
+
+    @Override
+    @EntityGraph(attributePaths = {"author", "editor"})
+    List<ArticleEntity> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"author", "editor"})
+    Page<ArticleEntity> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"author", "editor"})
+    Page<ArticleEntity> findAll(Specification<ArticleEntity> specification, Pageable pageable);
+
+    // Server-side cursor for exports, has to be consumed inside a transaction
+    @EntityGraph(attributePaths = {"author", "editor"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select a from ArticleEntity a order by a.createdDate")
+    Stream<ArticleEntity> streamAll();
+
+    // Id ordered batches for full passes (rebuilds, backfills), each batch seeks past the last id instead of skipping an offset
+    default List<ArticleEntity> findBatchAfter(UUID after, int size) {
+        return after == null ? findAllByOrderByIdAsc(Limit.of(size)) : findByIdGreaterThanOrderByIdAsc(after, Limit.of(size));
+    }
+
+    @EntityGraph(attributePaths = {"author", "editor"})
+    List<ArticleEntity> findAllByOrderByIdAsc(Limit limit);
+
+    @EntityGraph(attributePaths = {"author", "editor"})
+    List<ArticleEntity> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    // The same batches over the articles of one author
+    default List<ArticleEntity> findBatchByAuthorAfter(UUID authorId, UUID after, int size) {
+        return after == null
+                ? findByAuthorIdOrderByIdAsc(authorId, Limit.of(size))
+                : findByAuthorIdAndIdGreaterThanOrderByIdAsc(authorId, after, Limit.of(size));
+    }
+
+    @EntityGraph(attributePaths = {"author", "editor"})
+    List<ArticleEntity> findByAuthorIdOrderByIdAsc(UUID authorId, Limit limit);
+
+    @EntityGraph(attributePaths = {"author", "editor"})
+    List<ArticleEntity> findByAuthorIdAndIdGreaterThanOrderByIdAsc(UUID authorId, UUID id, Limit limit);
+
+    // Backfill of summaries, leaves the version and the edit date alone
+    @Transactional
+    @Modifying
+    @Query("update ArticleEntity a set a.summary = :summary where a.id = :id")
+    int updateSummary(UUID id, String summary);
+
+    // Version lookup for conditional GETs, never loads the row itself
+    @Query("select a.updatedDate from ArticleEntity a where a.id = :id")
+    Optional<LocalDateTime> findUpdatedDateById(UUID id);
+
+    // Article reference of comment listings, one column instead of the row with its content
+    @Query("select a.title from ArticleEntity a where a.id = :id")
+    Optional<String> findTitleById(UUID id);
+
+    // Comment statistics are changed in place, concurrent comments never overwrite each other and the version isn't bumped
+    @Transactional
+    @Modifying
+    @Query("update ArticleEntity a set a.commentCount = a.commentCount + 1, " +
+            "a.lastCommentAt = case when a.lastCommentAt is null or a.lastCommentAt < :commentedAt then :commentedAt else a.lastCommentAt end, " +
+            "a.commentStatsChangedAt = :changedAt " +
+            "where a.id = :id")
+    int commentAdded(UUID id, LocalDateTime commentedAt, LocalDateTime changedAt);
+
+    // Runs after the delete, the latest remaining comment comes from the (article, dateCreated) index
+    @Transactional
+    @Modifying
+    @Query("update ArticleEntity a set a.commentCount = case when a.commentCount > 0 then a.commentCount - 1 else 0 end, " +
+            "a.lastCommentAt = (select max(c.dateCreated) from CommentEntity c where c.articleEntity.id = a.id), " +
+            "a.commentStatsChangedAt = :changedAt " +
+            "where a.id = :id")
+    int commentRemoved(UUID id, LocalDateTime changedAt);
+
+    // Other authors' articles a user commented on, their statistics change when the user's comments are deleted with them
+    @Query("select distinct c.articleEntity.id from CommentEntity c where c.author = :user and c.articleEntity.author <> :user")
+    List<UUID> findIdsCommentedOnBy(UserEntity user);
+
+    // Recounts the given articles after comments were deleted in bulk
+    @Transactional
+    @Modifying
+    @Query("update ArticleEntity a set a.commentCount = (select count(c) from CommentEntity c where c.articleEntity.id = a.id), " +
+            "a.lastCommentAt = (select max(c.dateCreated) from CommentEntity c where c.articleEntity.id = a.id), " +
+            "a.commentStatsChangedAt = :changedAt " +
+            "where a.id in :ids")
+    int recountCommentStats(Collection<UUID> ids, LocalDateTime changedAt);
+
+    // Repairs drift (failed writes, direct database edits), only rows that are off are written
+    @Transactional
+    @Modifying
+    @Query("update ArticleEntity a set a.commentCount = (select count(c) from CommentEntity c where c.articleEntity.id = a.id), " +
+            "a.lastCommentAt = (select max(c.dateCreated) from CommentEntity c where c.articleEntity.id = a.id), " +
+            "a.commentStatsChangedAt = :changedAt " +
+            "where a.commentCount <> (select count(c) from CommentEntity c where c.articleEntity.id = a.id) " +
+            "or coalesce(a.lastCommentAt, a.createdDate) <> coalesce((select max(c.dateCreated) from CommentEntity c where c.articleEntity.id = a.id), a.createdDate)")
+    int reconcileCommentStats(LocalDateTime changedAt);
+
+    // What the article ETag is made of, for conditional GETs and after an optimistic locking failure
+    @Query("select new com.cognizant.practice.blog.article.dto.ArticleVersion(a.version, a.commentCount, a.lastCommentAt, au.updatedDate, ed.updatedDate, " +
+            "a.updatedDate, a.commentStatsChangedAt) " +
+            "from ArticleEntity a left join a.author au left join a.editor ed where a.id = :id")
+    Optional<ArticleVersion> findArticleVersionById(UUID id);
+
+    // Deleting a user cascades to their articles, their uploads are released first
+    List<ArticleEntity> findAllByAuthor(UserEntity author);
+
+    @EntityGraph(attributePaths = {"author", "editor"})
     Page<ArticleEntity> findAllByTitle(String title, Pageable pageable);
+    @EntityGraph(attributePaths = {"author", "editor"})
     Page<ArticleEntity> findAllByAuthor(UserEntity user, Pageable pageable);
+    @EntityGraph(attributePaths = {"author", "editor"})
     Page<ArticleEntity> findAllByTitleAndAuthor(String title, UserEntity user, Pageable pageable);
+    @EntityGraph(attributePaths = {"author", "editor"})
     Page<ArticleEntity> findAllByCategory(String category, Pageable pageable);
 }
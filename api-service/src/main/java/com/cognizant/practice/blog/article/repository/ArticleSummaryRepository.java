@@ -0,0 +1,12 @@
+package com.cognizant.practice.blog.article.repository;
+
+import com.cognizant.practice.blog.article.dto.ArticleSummary;
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ArticleSummaryRepository {
+    List<ArticleSummary> findSummaries(Specification<ArticleEntity> specification, Sort sort, long offset, int limit);
+}
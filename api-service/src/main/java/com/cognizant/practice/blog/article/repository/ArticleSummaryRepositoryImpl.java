@@ -0,0 +1,86 @@
+package com.cognizant.practice.blog.article.repository;
+
+import com.cognizant.practice.blog.article.dto.ArticleSummary;
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.user.entity.UserEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ArticleSummaryRepositoryImpl implements ArticleSummaryRepository {
+    private final EntityManager entityManager;
+
+    public ArticleSummaryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Constructor projection, so the content column is never selected and the users only contribute the card fields
+    @Override
+    public List<ArticleSummary> findSummaries(Specification<ArticleEntity> specification, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ArticleSummary> query = cb.createQuery(ArticleSummary.class);
+        Root<ArticleEntity> root = query.from(ArticleEntity.class);
+        Join<ArticleEntity, UserEntity> author = root.join("author", JoinType.LEFT);
+        Join<ArticleEntity, UserEntity> editor = root.join("editor", JoinType.LEFT);
+
+        query.select(cb.construct(ArticleSummary.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("summary"),
+                root.get("createdDate"),
+                root.get("updatedDate"),
+                root.get("imageUrl"),
+                root.get("category"),
+                root.get("cropX"),
+                root.get("cropY"),
+                root.get("cropWidth"),
+                root.get("cropHeight"),
+                root.get("cropScale"),
+                author.get("id"),
+                author.get("username"),
+                author.get("firstName"),
+                author.get("lastName"),
+                author.get("profilePicture"),
+                editor.get("id"),
+                editor.get("username"),
+                editor.get("firstName"),
+                editor.get("lastName"),
+                editor.get("profilePicture"),
+                root.get("commentCount"),
+                root.get("lastCommentAt")));
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Nulls last is spelled out as an extra "is null" key, Postgres puts nulls first when sorting descending
+    private static List<Order> toOrders(Sort sort, Root<ArticleEntity> root, CriteriaBuilder cb) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (order.getNullHandling() == Sort.NullHandling.NULLS_LAST) {
+                orders.add(cb.asc(cb.<Integer>selectCase().when(cb.isNull(root.get(order.getProperty())), 1).otherwise(0)));
+            }
+            orders.addAll(QueryUtils.toOrders(Sort.by(order.getDirection(), order.getProperty()), root, cb));
+        }
+        return orders;
+    }
+}
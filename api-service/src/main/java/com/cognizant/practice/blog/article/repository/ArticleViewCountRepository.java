@@ -0,0 +1,8 @@
+package com.cognizant.practice.blog.article.repository;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface ArticleViewCountRepository {
+    void addViews(Map<UUID, Long> deltas);
+}
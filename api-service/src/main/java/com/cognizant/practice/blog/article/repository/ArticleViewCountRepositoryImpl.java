@@ -0,0 +1,39 @@
+package com.cognizant.practice.blog.article.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class ArticleViewCountRepositoryImpl implements ArticleViewCountRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public ArticleViewCountRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Upsert in two JDBC batches: increment the existing rows, then insert the ones no update matched.
+    // Plain SQL so it runs the same on Postgres and H2, there is a single flusher so the inserts can't race.
+    @Override
+    @Transactional
+    public void addViews(Map<UUID, Long> deltas) {
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> updates.add(new Object[]{delta, id}));
+
+        int[] updated = jdbcTemplate.batchUpdate("update article_views set views = views + ? where article_id = ?", updates);
+
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Object[] update = updates.get(i);
+                inserts.add(new Object[]{update[1], update[0]});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into article_views (article_id, views) values (?, ?)", inserts);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.cognizant.practice.blog.article.repository;
+
+import com.cognizant.practice.blog.article.entity.ArticleViewEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ArticleViewRepository extends JpaRepository<ArticleViewEntity, UUID>, ArticleViewCountRepository {
+}
@@ -0,0 +1,77 @@
+package com.cognizant.practice.blog.article.service;
+
+import com.cognizant.practice.blog.article.dto.Article;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+// Read-through cache for single articles. The cache holds futures, so concurrent misses for the same id
+// all join the one in-flight load instead of each going to the database.
+@Component
+public class ArticleCache {
+    private final AsyncCache<UUID, Article> cache;
+
+    public ArticleCache(MeterRegistry meterRegistry,
+                        @Value("${blog.cache.articles.max-size}") long maxSize,
+                        @Value("${blog.cache.articles.ttl-seconds}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "articles");
+    }
+
+    public Article get(UUID id, Function<UUID, Article> loader) {
+        CompletableFuture<Article> article = cache.getIfPresent(id);
+        if (article == null) {
+            // The first caller publishes an empty future and loads on its own thread, outside the map's lock.
+            // The others find the future and wait on it.
+            CompletableFuture<Article> loading = new CompletableFuture<>();
+            article = cache.asMap().putIfAbsent(id, loading);
+            if (article == null) {
+                article = loading;
+                try {
+                    loading.complete(loader.apply(id));
+                } catch (Throwable e) {
+                    // Waiters are released with the failure and the next caller loads again
+                    loading.completeExceptionally(e);
+                    cache.asMap().remove(id, loading);
+                }
+            }
+        }
+
+        try {
+            return article.join();
+        } catch (CompletionException e) {
+            // Rethrow what the loader threw (e.g. the 404)
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Called after the write is committed, so any later read reloads the new state
+    public void invalidate(UUID id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    // Articles embed their author and editor, user changes can affect any of them
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+}
@@ -0,0 +1,44 @@
+package com.cognizant.practice.blog.article.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+// Totals for paged listings, kept apart from the pages so pages never pay for a count query.
+// Deliberately not invalidated on writes: a total is allowed to be off by the writes of the last TTL.
+@Component
+public class ArticleCountCache {
+    private final Cache<Key, Long> cache;
+
+    public ArticleCountCache(MeterRegistry meterRegistry,
+                             @Value("${blog.cache.article-counts.max-size}") long maxSize,
+                             @Value("${blog.cache.article-counts.ttl-seconds}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "articleCounts");
+    }
+
+    public long get(String title, String author, String category, LocalDateTime createdDate, Supplier<Long> counter) {
+        Key key = new Key(lower(title), lower(author), category, createdDate);
+
+        return cache.get(key, k -> counter.get());
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase();
+    }
+
+    private record Key(String title, String author, String category, LocalDateTime createdDate) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.cognizant.practice.blog.article.service;
+
+import com.cognizant.practice.blog.article.convertor.ArticleConvertor;
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.article.repository.ArticleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes every article as one JSON line while reading them through a database cursor.
+// The persistence context is cleared after every batch, so memory use doesn't grow with the table.
+@Service
+public class ArticleExportService {
+    private final ArticleRepository articleRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${blog.export.batch-size}")
+    private int batchSize;
+
+    public ArticleExportService(ArticleRepository articleRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.articleRepository = articleRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportArticles(OutputStream out) throws IOException {
+        long exported = 0;
+        try (Stream<ArticleEntity> articles = articleRepository.streamAll()) {
+            Iterator<ArticleEntity> iterator = articles.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(ArticleConvertor.toDto(iterator.next())));
+                out.write('\n');
+
+                if (++exported % batchSize == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+
+        return exported;
+    }
+}
@@ -0,0 +1,161 @@
+package com.cognizant.practice.blog.article.service;
+
+import com.cognizant.practice.blog.article.dto.ArticleFacetCell;
+import com.cognizant.practice.blog.article.dto.ArticleFacets;
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.article.repository.ArticleRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Article counts per (category, author, month), loaded once and then kept current by the article and user write paths.
+// Facet requests roll these cells up instead of grouping the whole ARTICLES table. A periodic recount repairs drift
+// (writes that bypass the service, a failed commit after the cells were updated).
+@Service
+public class ArticleFacetService {
+    private static final Logger log = LoggerFactory.getLogger(ArticleFacetService.class);
+
+    private final ArticleRepository articleRepository;
+    private final Map<Cell, Long> cells = new ConcurrentHashMap<>();
+
+    public ArticleFacetService(ArticleRepository articleRepository) {
+        this.articleRepository = articleRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        cells.clear();
+        cells.putAll(count());
+    }
+
+    // Cells are replaced one by one, the facets stay answerable during the recount. A write that lands while the
+    // counts are queried may be counted twice or not at all until the next pass.
+    @Scheduled(fixedDelayString = "${blog.facets.recount-interval-ms}", initialDelayString = "${blog.facets.recount-interval-ms}")
+    public void recount() {
+        Map<Cell, Long> counted = count();
+        int repaired = 0;
+        for (Cell cell : cells.keySet()) {
+            if (!counted.containsKey(cell) && cells.remove(cell) != null) {
+                repaired++;
+            }
+        }
+        for (Map.Entry<Cell, Long> entry : counted.entrySet()) {
+            if (!entry.getValue().equals(cells.put(entry.getKey(), entry.getValue()))) {
+                repaired++;
+            }
+        }
+
+        if (repaired > 0) {
+            log.info("Repaired {} article facet counts", repaired);
+        }
+    }
+
+    // author and category filters can be answered from the cells, author is case-insensitive like ArticleSpecification.hasAuthor
+    public ArticleFacets getFacets(String author, String category) {
+        Map<Cell, Long> matching = new HashMap<>();
+        cells.forEach((cell, count) -> {
+            if ((author == null || author.equalsIgnoreCase(cell.author())) && (category == null || category.equals(cell.category()))) {
+                matching.put(cell, count);
+            }
+        });
+
+        return rollUp(matching);
+    }
+
+    // For filters the cells can't answer (title, exact creation date) the caller groups the matching rows instead
+    public ArticleFacets rollUp(List<ArticleFacetCell> facetCells) {
+        Map<Cell, Long> grouped = new HashMap<>();
+        for (ArticleFacetCell cell : facetCells) {
+            grouped.merge(toCell(cell), cell.count(), Long::sum);
+        }
+
+        return rollUp(grouped);
+    }
+
+    public void articleAdded(String category, String author, LocalDateTime createdDate) {
+        add(new Cell(category, author, createdDate == null ? null : YearMonth.from(createdDate)), 1);
+    }
+
+    public void articleRemoved(String category, String author, LocalDateTime createdDate) {
+        add(new Cell(category, author, createdDate == null ? null : YearMonth.from(createdDate)), -1);
+    }
+
+    public void authorRenamed(String oldUsername, String newUsername) {
+        if (oldUsername == null || oldUsername.equals(newUsername)) {
+            return;
+        }
+
+        for (Cell cell : List.copyOf(cells.keySet())) {
+            if (oldUsername.equals(cell.author())) {
+                Long count = cells.remove(cell);
+                if (count != null) {
+                    add(new Cell(cell.category(), newUsername, cell.month()), count);
+                }
+            }
+        }
+    }
+
+    // Deleting a user cascades to their articles
+    public void authorRemoved(String username) {
+        cells.keySet().removeIf(cell -> username != null && username.equals(cell.author()));
+    }
+
+    private Map<Cell, Long> count() {
+        Specification<ArticleEntity> all = (root, query, cb) -> null;
+        Map<Cell, Long> counted = new HashMap<>();
+        for (ArticleFacetCell cell : articleRepository.findFacetCells(all)) {
+            counted.merge(toCell(cell), cell.count(), Long::sum);
+        }
+
+        return counted;
+    }
+
+    private void add(Cell cell, long delta) {
+        cells.merge(cell, delta, (current, change) -> current + change == 0 ? null : current + change);
+    }
+
+    private ArticleFacets rollUp(Map<Cell, Long> source) {
+        return ArticleFacets.builder()
+                .categories(sum(source, Cell::category, Map.Entry.<String, Long>comparingByValue().reversed()))
+                .authors(sum(source, Cell::author, Map.Entry.<String, Long>comparingByValue().reversed()))
+                .months(sum(source, cell -> cell.month() == null ? null : cell.month().toString(), Map.Entry.<String, Long>comparingByKey().reversed()))
+                .build();
+    }
+
+    private static Map<String, Long> sum(Map<Cell, Long> source, Function<Cell, String> facet, Comparator<Map.Entry<String, Long>> order) {
+        Map<String, Long> counts = new HashMap<>();
+        source.forEach((cell, count) -> {
+            String value = facet.apply(cell);
+            if (value != null) {
+                counts.merge(value, count, Long::sum);
+            }
+        });
+
+        Map<String, Long> ordered = new LinkedHashMap<>();
+        counts.entrySet().stream().sorted(order).forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+
+        return ordered;
+    }
+
+    private static Cell toCell(ArticleFacetCell cell) {
+        YearMonth month = cell.year() == null || cell.month() == null ? null : YearMonth.of(cell.year(), cell.month());
+
+        return new Cell(cell.category(), cell.author(), month);
+    }
+
+    private record Cell(String category, String author, YearMonth month) {
+    }
+}
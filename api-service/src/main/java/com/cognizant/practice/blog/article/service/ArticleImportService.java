@@ -0,0 +1,197 @@
+package com.cognizant.practice.blog.article.service;
+
+import com.cognizant.practice.blog.article.dto.ArticleImportRequest;
+import com.cognizant.practice.blog.article.dto.ImportError;
+import com.cognizant.practice.blog.article.dto.ImportReport;
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.comment.dto.CommentImportRequest;
+import com.cognizant.practice.blog.comment.entity.CommentEntity;
+import com.cognizant.practice.blog.search.service.ArticleSearchService;
+import com.cognizant.practice.blog.user.entity.UserEntity;
+import com.cognizant.practice.blog.user.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Bulk import of NDJSON articles with nested comments. Lines are persisted in chunks, one transaction each,
+// with Hibernate JDBC batching, and a bad line is reported instead of failing the whole stream.
+@Service
+public class ArticleImportService {
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ArticlesService articlesService;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ArticleListCache articleListCache;
+    private final ArticleFacetService articleFacetService;
+    private final ArticleSearchService articleSearchService;
+
+    @Value("${blog.import.chunk-size}")
+    private int chunkSize;
+
+    public ArticleImportService(ArticlesService articlesService, UserRepository userRepository, EntityManager entityManager, ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager, ArticleListCache articleListCache,
+                                ArticleFacetService articleFacetService, ArticleSearchService articleSearchService) {
+        this.articlesService = articlesService;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.articleListCache = articleListCache;
+        this.articleFacetService = articleFacetService;
+        this.articleSearchService = articleSearchService;
+    }
+
+    public ImportReport importArticles(InputStream body) throws IOException {
+        ImportReport report = new ImportReport();
+        // username -> user, every author is looked up once per import
+        Map<String, Optional<UserEntity>> users = new HashMap<>();
+        List<ImportLine> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            try {
+                ArticleImportRequest request = objectMapper.readValue(line, ArticleImportRequest.class);
+                chunk.add(toImportLine(lineNumber, request, users));
+            } catch (JsonProcessingException e) {
+                fail(report, lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                fail(report, lineNumber, e.getMessage());
+            }
+
+            if (chunk.size() >= chunkSize) {
+                persist(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            persist(chunk, report);
+        }
+
+        if (report.getImportedArticles() > 0) {
+            articleListCache.invalidate();
+        }
+
+        return report;
+    }
+
+    private ImportLine toImportLine(long lineNumber, ArticleImportRequest request, Map<String, Optional<UserEntity>> users) {
+        if (!articlesService.isValidParam(request.title()) || !articlesService.isValidParam(request.content())) {
+            throw new IllegalArgumentException("Fields can not be empty");
+        }
+
+        UserEntity author = resolveUser(request.author(), users);
+        LocalDateTime createdDate = request.createdDate() == null ? LocalDateTime.now() : request.createdDate();
+        ArticleEntity article = new ArticleEntity(null, request.title(), request.content(), articlesService.summarize(request.content()), createdDate, createdDate, null, new ArrayList<String>(), request.category(), null, null, null, null, null, null, author, author, null, 0, null, null);
+
+        List<CommentEntity> comments = new ArrayList<>();
+        if (request.comments() != null) {
+            for (CommentImportRequest comment : request.comments()) {
+                if (!articlesService.isValidParam(comment.content())) {
+                    throw new IllegalArgumentException("Comment content can not be empty");
+                }
+
+                UserEntity commentAuthor = resolveUser(comment.author(), users);
+                LocalDateTime dateCreated = comment.dateCreated() == null ? createdDate : comment.dateCreated();
+                comments.add(new CommentEntity(null, comment.content(), dateCreated, dateCreated, article, commentAuthor, commentAuthor, null));
+            }
+        }
+
+        article.setCommentCount(comments.size());
+        article.setLastCommentAt(comments.stream().map(CommentEntity::getDateCreated).max(Comparator.naturalOrder()).orElse(null));
+
+        return new ImportLine(lineNumber, article, comments);
+    }
+
+    private UserEntity resolveUser(String username, Map<String, Optional<UserEntity>> users) {
+        if (!articlesService.isValidParam(username)) {
+            throw new IllegalArgumentException("Author can not be empty");
+        }
+
+        return users.computeIfAbsent(username, userRepository::findByUsername)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
+    }
+
+    private void persist(List<ImportLine> chunk, ImportReport report) {
+        try {
+            save(chunk);
+            imported(chunk, report);
+        } catch (RuntimeException e) {
+            // Something in the chunk was rejected by the database, retry line by line to find out which
+            for (ImportLine line : chunk) {
+                line.reset();
+                try {
+                    save(List.of(line));
+                    imported(List.of(line), report);
+                } catch (RuntimeException lineFailure) {
+                    fail(report, line.number(), "Could not be saved: " + lineFailure.getMessage());
+                }
+            }
+        }
+    }
+
+    private void save(List<ImportLine> lines) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (ImportLine line : lines) {
+                entityManager.persist(line.article());
+                line.comments().forEach(entityManager::persist);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private void imported(List<ImportLine> lines, ImportReport report) {
+        List<ArticleEntity> articles = new ArrayList<>();
+        for (ImportLine line : lines) {
+            ArticleEntity article = line.article();
+            articles.add(article);
+            articleFacetService.articleAdded(article.getCategory(), article.getAuthor().getUsername(), article.getCreatedDate());
+
+            report.setImportedArticles(report.getImportedArticles() + 1);
+            report.setImportedComments(report.getImportedComments() + line.comments().size());
+        }
+        articleSearchService.indexAll(articles);
+    }
+
+    private void fail(ImportReport report, long line, String message) {
+        report.setFailedLines(report.getFailedLines() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new ImportError(line, message));
+        }
+    }
+
+    private record ImportLine(long number, ArticleEntity article, List<CommentEntity> comments) {
+        // A rolled back persist leaves generated ids behind, clear them before trying again
+        void reset() {
+            article.setId(null);
+            comments.forEach(comment -> comment.setId(null));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.cognizant.practice.blog.article.service;
+
+import com.cognizant.practice.blog.article.dto.ArticleSummary;
+import com.cognizant.practice.blog.config.ETags;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Caches GET /articles result pages. Every write bumps the generation, so a load that raced with a write
+// is stored under a key nobody asks for anymore and can never be served stale.
+// Comments only change the counters of one article, they drop the pages that show it (see commentsChanged).
+@Component
+public class ArticleListCache {
+    private static final Set<String> COMMENT_SORTS = Set.of("commentCount", "lastCommentAt");
+
+    private final Cache<Key, List<ArticleSummary>> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong commentChanges = new AtomicLong();
+    // The counters start over on restart, validators handed out before it must not match again
+    private final UUID instance = UUID.randomUUID();
+    private final long ttlMillis;
+    // Last write that dropped pages, for Last-Modified
+    private volatile long lastChange = System.currentTimeMillis();
+
+    public ArticleListCache(MeterRegistry meterRegistry,
+                            @Value("${blog.cache.article-lists.max-size}") long maxSize,
+                            @Value("${blog.cache.article-lists.ttl-seconds}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "articleLists");
+    }
+
+    // Validator for a list response, computed before the page is queried or converted. It changes with every write
+    // that drops cached pages and at least once per TTL, so a 304 is never older than a cached page may be.
+    public String etag(String kind, int size, Object position, String title, String author, String category,
+                       LocalDateTime createdDate, String sort, boolean withTotal) {
+        return ETags.of(instance, generation.get(), commentChanges.get(), System.currentTimeMillis() / ttlMillis,
+                kind, size, position, lower(title), lower(author), category, createdDate, sort.trim(), withTotal);
+    }
+
+    // Last-Modified of every list response, moves with the same writes and TTL buckets as the ETag
+    public long lastModified() {
+        long now = System.currentTimeMillis();
+        return Math.max(lastChange, now - now % ttlMillis);
+    }
+
+    public List<ArticleSummary> get(int size, int from, String title, String author, String category, LocalDateTime createdDate, Sort sort,
+                                    Supplier<List<ArticleSummary>> loader) {
+        // Title and author filters are case-insensitive, so are their keys
+        Key key = new Key(generation.get(), size, from, lower(title), lower(author), category, createdDate, sort);
+
+        long commentChangesBefore = commentChanges.get();
+        boolean[] loaded = {false};
+        List<ArticleSummary> page = cache.get(key, k -> {
+            loaded[0] = true;
+            return List.copyOf(loader.get());
+        });
+        // A comment changed while this page was loading, it may carry old counters and is not kept
+        if (loaded[0] && commentChanges.get() != commentChangesBefore) {
+            cache.asMap().remove(key, page);
+        }
+
+        return page;
+    }
+
+    public void invalidate() {
+        lastChange = System.currentTimeMillis();
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    // Drops the pages that show the article and the pages ordered by comment activity, the rest stays cached
+    public void commentsChanged(UUID articleId) {
+        lastChange = System.currentTimeMillis();
+        commentChanges.incrementAndGet();
+        cache.asMap().entrySet().removeIf(entry -> entry.getKey().sortsByComments()
+                || entry.getValue().stream().anyMatch(summary -> articleId.equals(summary.getId())));
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase();
+    }
+
+    private record Key(long generation, int size, int from, String title, String author, String category, LocalDateTime createdDate, Sort sort) {
+        boolean sortsByComments() {
+            return sort != null && sort.stream().anyMatch(order -> COMMENT_SORTS.contains(order.getProperty()));
+        }
+    }
+}
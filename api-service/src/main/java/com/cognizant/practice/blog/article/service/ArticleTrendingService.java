@@ -0,0 +1,297 @@
+package com.cognizant.practice.blog.article.service;
+
+import com.cognizant.practice.blog.article.dto.ArticleSummary;
+import com.cognizant.practice.blog.article.dto.TrendingArticle;
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.article.repository.ArticleRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Trending ranking kept in memory and updated per event instead of recomputed per request.
+// Scores use forward decay: an event at time t adds weight * e^(lambda * (t - landmark)), so the score of
+// every article only grows and the order of two articles never changes while nothing happens to them.
+// That keeps the top-K set exact with one comparison per event, and the decay is applied only when a
+// score is read (score * e^(-lambda * (now - landmark))). The scores are written to disk periodically.
+@Service
+public class ArticleTrendingService {
+    private static final Logger log = LoggerFactory.getLogger(ArticleTrendingService.class);
+
+    private static final Comparator<Ranked> BY_SCORE = Comparator.comparingDouble(Ranked::score).thenComparing(Ranked::id);
+    private static final int SEED_BATCH_SIZE = 500;
+
+    private final ArticleRepository articleRepository;
+    private final Clock clock;
+
+    private final double lambda;
+    private final int size;
+
+    @Value("${blog.trending.view-weight}")
+    private double viewWeight;
+
+    @Value("${blog.trending.comment-weight}")
+    private double commentWeight;
+
+    @Value("${blog.trending.new-article-weight}")
+    private double newArticleWeight;
+
+    @Value("${blog.trending.checkpoint-file}")
+    private String checkpointFile;
+
+    // Guarded by this
+    private final Map<UUID, Double> scores = new HashMap<>();
+    private final TreeSet<Ranked> top = new TreeSet<>(BY_SCORE);
+    private long landmark;
+    // Scheduled and shutdown checkpoints share the temp file
+    private final Object checkpointLock = new Object();
+
+    @Autowired
+    public ArticleTrendingService(ArticleRepository articleRepository,
+                                  @Value("${blog.trending.half-life-hours}") double halfLifeHours,
+                                  @Value("${blog.trending.size}") int size) {
+        this(articleRepository, halfLifeHours, size, Clock.systemDefaultZone());
+    }
+
+    ArticleTrendingService(ArticleRepository articleRepository, double halfLifeHours, int size, Clock clock) {
+        this.articleRepository = articleRepository;
+        this.clock = clock;
+        this.lambda = Math.log(2) / (halfLifeHours * 3_600_000);
+        this.size = size;
+        this.landmark = clock.millis();
+    }
+
+    // From the last checkpoint, or from the publication dates of recent articles when there is none
+    @PostConstruct
+    public void load() {
+        Path path = Paths.get(checkpointFile);
+        if (Files.exists(path)) {
+            try {
+                readCheckpoint(path);
+                return;
+            } catch (IOException e) {
+                log.warn("Failed to read trending checkpoint {}, starting from recent articles", path, e);
+                synchronized (this) {
+                    scores.clear();
+                    landmark = clock.millis();
+                }
+            }
+        }
+        seed();
+    }
+
+    @PreDestroy
+    public void close() {
+        checkpoint();
+    }
+
+    public void articleCreated(UUID id, LocalDateTime createdDate) {
+        add(id, newArticleWeight, toEpochMilli(createdDate));
+    }
+
+    public void commentAdded(UUID articleId) {
+        add(articleId, commentWeight, clock.millis());
+    }
+
+    // Fed with the deltas of each view counter flush rather than per view
+    public void viewsAdded(Map<UUID, Long> views) {
+        long now = clock.millis();
+        synchronized (this) {
+            views.forEach((id, count) -> addLocked(id, viewWeight * count, now));
+        }
+    }
+
+    public synchronized void articleDeleted(UUID id) {
+        Double score = scores.remove(id);
+        if (score != null && top.remove(new Ranked(id, score))) {
+            refillTop();
+        }
+    }
+
+    // O(K) in memory plus one query for the summaries
+    public List<TrendingArticle> getTrending(int limit) {
+        List<Ranked> ranked = new ArrayList<>(Math.min(Math.max(limit, 0), size));
+        double decay;
+        synchronized (this) {
+            decay = Math.exp(-lambda * (clock.millis() - landmark));
+            Iterator<Ranked> highest = top.descendingIterator();
+            while (highest.hasNext() && ranked.size() < limit) {
+                ranked.add(highest.next());
+            }
+        }
+        if (ranked.isEmpty()) {
+            return List.of();
+        }
+
+        List<UUID> ids = ranked.stream().map(Ranked::id).toList();
+        Specification<ArticleEntity> withIds = (root, query, cb) -> root.get("id").in(ids);
+        Map<UUID, ArticleSummary> summaries = articleRepository.findSummaries(withIds, Sort.unsorted(), 0, ids.size()).stream()
+                .collect(Collectors.toMap(ArticleSummary::getId, Function.identity()));
+
+        List<TrendingArticle> result = new ArrayList<>(ranked.size());
+        for (Ranked entry : ranked) {
+            ArticleSummary summary = summaries.get(entry.id());
+            if (summary != null) {
+                result.add(new TrendingArticle(summary, entry.score() * decay));
+            }
+        }
+        return result;
+    }
+
+    // Also moves the landmark to now, which keeps the stored scores far from overflowing, and drops
+    // articles whose decayed score is too small to ever matter again
+    @Scheduled(fixedDelayString = "${blog.trending.checkpoint-interval-ms}", initialDelayString = "${blog.trending.checkpoint-interval-ms}")
+    public void checkpoint() {
+        synchronized (checkpointLock) {
+            Map<UUID, Double> snapshot;
+            long snapshotLandmark;
+            synchronized (this) {
+                rebase(clock.millis());
+                snapshot = new HashMap<>(scores);
+                snapshotLandmark = landmark;
+            }
+
+            write(snapshot, snapshotLandmark);
+        }
+    }
+
+    private void write(Map<UUID, Double> snapshot, long snapshotLandmark) {
+        Path path = Paths.get(checkpointFile).toAbsolutePath();
+        Path part = path.resolveSibling("." + path.getFileName() + ".part");
+        try {
+            Files.createDirectories(path.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(part)))) {
+                out.writeLong(snapshotLandmark);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<UUID, Double> entry : snapshot.entrySet()) {
+                    out.writeLong(entry.getKey().getMostSignificantBits());
+                    out.writeLong(entry.getKey().getLeastSignificantBits());
+                    out.writeDouble(entry.getValue());
+                }
+            }
+
+            try {
+                Files.move(part, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(part, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write trending checkpoint {}", path, e);
+        }
+    }
+
+    private void add(UUID id, double weight, long at) {
+        synchronized (this) {
+            addLocked(id, weight, at);
+        }
+    }
+
+    private void addLocked(UUID id, double weight, long at) {
+        Double previous = scores.get(id);
+        double score = (previous == null ? 0 : previous) + weight * Math.exp(lambda * (at - landmark));
+        scores.put(id, score);
+
+        if (previous != null && top.remove(new Ranked(id, previous))) {
+            top.add(new Ranked(id, score));
+        } else if (top.size() < size) {
+            top.add(new Ranked(id, score));
+        } else if (score > top.first().score()) {
+            // Scores only grow, so an article pushed out here can only come back through an event of its own
+            top.pollFirst();
+            top.add(new Ranked(id, score));
+        }
+    }
+
+    private void rebase(long now) {
+        double factor = Math.exp(-lambda * (now - landmark));
+        // Below a thousandth of a view an article can't outrank anything that is still being read
+        double threshold = viewWeight / 1000;
+        scores.replaceAll((id, score) -> score * factor);
+        scores.values().removeIf(score -> score < threshold);
+        landmark = now;
+        refillTop();
+    }
+
+    private void refillTop() {
+        top.clear();
+        for (Map.Entry<UUID, Double> entry : scores.entrySet()) {
+            Ranked ranked = new Ranked(entry.getKey(), entry.getValue());
+            if (top.size() < size) {
+                top.add(ranked);
+            } else if (BY_SCORE.compare(ranked, top.first()) > 0) {
+                top.pollFirst();
+                top.add(ranked);
+            }
+        }
+    }
+
+    private void readCheckpoint(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            long savedLandmark = in.readLong();
+            int count = in.readInt();
+            synchronized (this) {
+                scores.clear();
+                for (int i = 0; i < count; i++) {
+                    scores.put(new UUID(in.readLong(), in.readLong()), in.readDouble());
+                }
+                landmark = savedLandmark;
+                refillTop();
+            }
+            log.info("Loaded {} trending scores from {}", count, path);
+        }
+    }
+
+    // Articles whose publication boost has already decayed below the pruning threshold are left out
+    private void seed() {
+        LocalDateTime since = LocalDateTime.now(clock).minusSeconds((long) (Math.log(1000 * newArticleWeight / viewWeight) / lambda / 1000));
+        Specification<ArticleEntity> recent = (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdDate"), since);
+        long offset = 0;
+        List<ArticleSummary> batch;
+        do {
+            batch = articleRepository.findSummaries(recent, Sort.by("id"), offset, SEED_BATCH_SIZE);
+            synchronized (this) {
+                for (ArticleSummary article : batch) {
+                    addLocked(article.getId(), newArticleWeight, toEpochMilli(article.getCreatedDate()));
+                }
+            }
+            offset += batch.size();
+        } while (batch.size() == SEED_BATCH_SIZE);
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record Ranked(UUID id, double score) {
+    }
+}
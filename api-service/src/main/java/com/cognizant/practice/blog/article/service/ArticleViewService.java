@@ -0,0 +1,162 @@
+package com.cognizant.practice.blog.article.service;
+
+import com.cognizant.practice.blog.article.dto.ArticleSummary;
+import com.cognizant.practice.blog.article.dto.ArticleViews;
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.article.entity.ArticleViewEntity;
+import com.cognizant.practice.blog.article.repository.ArticleRepository;
+import com.cognizant.practice.blog.article.repository.ArticleViewRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Article read counts. A view is one LongAdder increment, the deltas are written every few seconds in one
+// batch, so reads never touch the database and hot articles never contend on a row lock. Counts of the
+// last interval are lost if the process dies without shutting down.
+@Service
+public class ArticleViewService {
+    private static final Logger log = LoggerFactory.getLogger(ArticleViewService.class);
+
+    private static final Comparator<Map.Entry<UUID, Long>> BY_VIEWS = Map.Entry.comparingByValue();
+
+    private final ArticleViewRepository articleViewRepository;
+    private final ArticleRepository articleRepository;
+    private final ArticleTrendingService articleTrendingService;
+
+    // Views not written yet, entries are reset by the flusher but never removed, an increment can't get lost
+    private final ConcurrentHashMap<UUID, LongAdder> pending = new ConcurrentHashMap<>();
+    // Mirror of ARTICLE_VIEWS, so a total is two map lookups
+    private final ConcurrentHashMap<UUID, Long> persisted = new ConcurrentHashMap<>();
+
+    // Most viewed ids as of the last flush, highest first
+    private volatile List<UUID> top = List.of();
+
+    @Value("${blog.views.top-size}")
+    private int topSize;
+
+    public ArticleViewService(ArticleViewRepository articleViewRepository, ArticleRepository articleRepository,
+                              ArticleTrendingService articleTrendingService) {
+        this.articleViewRepository = articleViewRepository;
+        this.articleRepository = articleRepository;
+        this.articleTrendingService = articleTrendingService;
+    }
+
+    @PostConstruct
+    public void load() {
+        for (ArticleViewEntity entity : articleViewRepository.findAll()) {
+            persisted.put(entity.getArticleId(), entity.getViews());
+        }
+        top = computeTop();
+    }
+
+    public void recordView(UUID id) {
+        LongAdder counter = pending.get(id);
+        if (counter == null) {
+            counter = pending.computeIfAbsent(id, key -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    public long getViews(UUID id) {
+        LongAdder counter = pending.get(id);
+        return persisted.getOrDefault(id, 0L) + (counter == null ? 0 : counter.sum());
+    }
+
+    // size is capped at blog.views.top-size, ranking is refreshed on every flush
+    public List<ArticleViews> getMostViewed(int size) {
+        List<UUID> ids = top.subList(0, Math.min(Math.max(size, 0), top.size()));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Deleted articles drop out here
+        Specification<ArticleEntity> withIds = (root, query, cb) -> root.get("id").in(ids);
+        Map<UUID, ArticleSummary> summaries = articleRepository.findSummaries(withIds, Sort.unsorted(), 0, ids.size()).stream()
+                .collect(Collectors.toMap(ArticleSummary::getId, Function.identity()));
+
+        List<ArticleViews> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            ArticleSummary summary = summaries.get(id);
+            if (summary != null) {
+                result.add(new ArticleViews(summary, getViews(id)));
+            }
+        }
+        return result;
+    }
+
+    public void articleDeleted(UUID id) {
+        pending.remove(id);
+        persisted.remove(id);
+        articleViewRepository.deleteById(id);
+    }
+
+    @Scheduled(fixedDelayString = "${blog.views.flush-interval-ms}", initialDelayString = "${blog.views.flush-interval-ms}")
+    public void flush() {
+        Map<UUID, Long> deltas = new HashMap<>();
+        pending.forEach((id, counter) -> {
+            long delta = counter.sumThenReset();
+            if (delta != 0) {
+                // Moved over right away so getViews doesn't dip while the batch is written
+                persisted.merge(id, delta, Long::sum);
+                deltas.put(id, delta);
+            }
+        });
+
+        if (!deltas.isEmpty()) {
+            try {
+                articleViewRepository.addViews(deltas);
+            } catch (RuntimeException e) {
+                // Handed back to the counters, the next flush retries them
+                log.warn("Failed to write {} article view counts", deltas.size(), e);
+                deltas.forEach((id, delta) -> {
+                    persisted.merge(id, -delta, Long::sum);
+                    pending.computeIfAbsent(id, key -> new LongAdder()).add(delta);
+                });
+                return;
+            }
+            articleTrendingService.viewsAdded(deltas);
+        }
+
+        top = computeTop();
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    // Min-heap of topSize entries, one pass over the totals
+    private List<UUID> computeTop() {
+        PriorityQueue<Map.Entry<UUID, Long>> heap = new PriorityQueue<>(topSize + 1, BY_VIEWS);
+        for (Map.Entry<UUID, Long> entry : persisted.entrySet()) {
+            if (heap.size() < topSize) {
+                heap.add(Map.entry(entry.getKey(), entry.getValue()));
+            } else if (entry.getValue() > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        List<Map.Entry<UUID, Long>> ranked = new ArrayList<>(heap);
+        ranked.sort(BY_VIEWS.reversed());
+        return ranked.stream().map(Map.Entry::getKey).toList();
+    }
+}
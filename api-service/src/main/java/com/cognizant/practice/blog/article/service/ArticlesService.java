@@ -2,17 +2,42 @@ package com.cognizant.practice.blog.article.service;
 
 import com.cognizant.practice.blog.article.convertor.ArticleConvertor;
 import com.cognizant.practice.blog.article.dto.Article;
+import com.cognizant.practice.blog.article.dto.ArticleCursor;
+import com.cognizant.practice.blog.article.dto.ArticleFacets;
+import com.cognizant.practice.blog.article.dto.ArticlePage;
+import com.cognizant.practice.blog.article.dto.ArticlePatch;
 import com.cognizant.practice.blog.article.dto.ArticleSpecification;
+import com.cognizant.practice.blog.article.dto.ArticleSummary;
+import com.cognizant.practice.blog.article.dto.ArticleVersion;
 import com.cognizant.practice.blog.article.dto.SpecificationBuilder;
 import com.cognizant.practice.blog.article.entity.ArticleEntity;
 import com.cognizant.practice.blog.article.dto.ArticleRequest;
 import com.cognizant.practice.blog.article.repository.ArticleRepository;
+import com.cognizant.practice.blog.config.BackgroundJobs;
+import com.cognizant.practice.blog.config.VersionConflictException;
+import com.cognizant.practice.blog.live.service.LiveUpdateService;
+import com.cognizant.practice.blog.search.service.ArticleSearchService;
+import com.cognizant.practice.blog.storage.dto.UploadInitRequest;
+import com.cognizant.practice.blog.storage.dto.UploadSession;
+import com.cognizant.practice.blog.storage.service.BlobService;
+import com.cognizant.practice.blog.storage.service.ChunkedUploadService;
+import com.cognizant.practice.blog.storage.service.ImageVariantService;
+import com.cognizant.practice.blog.storage.service.UploadStorageService;
 import com.cognizant.practice.blog.user.convertor.UserConvertor;
 import com.cognizant.practice.blog.user.dto.User;
 import com.cognizant.practice.blog.user.entity.UserEntity;
 import com.cognizant.practice.blog.user.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.micrometer.common.util.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cglib.core.Local;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -23,30 +48,64 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.io.InputStream;
 import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 public class ArticlesService {
+    private static final Logger log = LoggerFactory.getLogger(ArticlesService.class);
+
+    private static final int MEDIA_SAVE_ATTEMPTS = 3;
+    private static final ObjectMapper SUMMARY_MAPPER = new ObjectMapper();
+
     public ArticleRepository articleRepository;
     public UserRepository userRepository;
+    public ArticleSearchService articleSearchService;
+    public ArticleListCache articleListCache;
+    public ArticleCache articleCache;
+    public ArticleCountCache articleCountCache;
+    public ArticleFacetService articleFacetService;
+    public BlobService blobService;
+    public ImageVariantService imageVariantService;
+    public ChunkedUploadService chunkedUploadService;
+    public ArticleViewService articleViewService;
+    public ArticleTrendingService articleTrendingService;
+    public LiveUpdateService liveUpdateService;
+    public BackgroundJobs backgroundJobs;
+
+    @Value("${blog.summaries.rebuild-batch-size}")
+    private int summaryRebuildBatchSize;
 
     public List<Article> articlesList = new ArrayList<>();
 
-    public ArticlesService(ArticleRepository articlesRepository, UserRepository userRepository) {
+    public ArticlesService(ArticleRepository articlesRepository, UserRepository userRepository, ArticleSearchService articleSearchService,
+                           ArticleListCache articleListCache, ArticleCache articleCache, ArticleCountCache articleCountCache,
+                           ArticleFacetService articleFacetService, BlobService blobService, ImageVariantService imageVariantService,
+                           ChunkedUploadService chunkedUploadService, ArticleViewService articleViewService,
+                           ArticleTrendingService articleTrendingService, LiveUpdateService liveUpdateService,
+                           BackgroundJobs backgroundJobs) {
         this.articleRepository = articlesRepository;
         this.userRepository = userRepository;
+        this.articleSearchService = articleSearchService;
+        this.articleListCache = articleListCache;
+        this.articleCache = articleCache;
+        this.articleCountCache = articleCountCache;
+        this.articleFacetService = articleFacetService;
+        this.blobService = blobService;
+        this.imageVariantService = imageVariantService;
+        this.chunkedUploadService = chunkedUploadService;
+        this.articleViewService = articleViewService;
+        this.articleTrendingService = articleTrendingService;
+        this.liveUpdateService = liveUpdateService;
+        this.backgroundJobs = backgroundJobs;
     }
 
     public boolean isValidParam(String param) {
@@ -57,8 +116,14 @@ public class ArticlesService {
         return isValidParam(request.title()) && isValidParam(request.content());
     }
 
+    // Lexical documents keep their leading blocks whole and cut the block that crosses the limit at its last space
+    // before it, so the summary is still a document the cards can render. Anything else is cut the same way.
     public String summarize(String article) {
         int maxLength = 500;
+        String lexicalSummary = summarizeLexical(article, maxLength);
+        if (lexicalSummary != null) {
+            return lexicalSummary;
+        }
         if (article.length() <= maxLength) {
             return article;
         }
@@ -73,6 +138,114 @@ public class ArticlesService {
         return truncated.substring(0, lastSpaceIndex);
     }
 
+    private static String summarizeLexical(String article, int maxTextLength) {
+        JsonNode document;
+        try {
+            document = SUMMARY_MAPPER.readTree(article);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+        if (document == null || !document.path("root").isObject() || !document.path("root").path("children").isArray()) {
+            return null;
+        }
+
+        ArrayNode kept = SUMMARY_MAPPER.createArrayNode();
+        int[] remaining = {maxTextLength};
+        for (JsonNode block : document.get("root").get("children")) {
+            int length = textLength(block);
+            if (length <= remaining[0]) {
+                kept.add(block);
+                remaining[0] -= length;
+            } else {
+                // The end of the previous block is a word boundary too, only a first block without spaces is cut mid-word
+                int cutAt = text(block).lastIndexOf(' ', remaining[0]);
+                remaining[0] = cutAt > 0 || !kept.isEmpty() ? Math.max(cutAt, 0) : remaining[0];
+                if (remaining[0] > 0) {
+                    ObjectNode cut = block.deepCopy();
+                    cutText(cut, remaining);
+                    kept.add(cut);
+                }
+                break;
+            }
+            if (remaining[0] <= 0) {
+                break;
+            }
+        }
+        ((ObjectNode) document.get("root")).set("children", kept);
+
+        try {
+            return SUMMARY_MAPPER.writeValueAsString(document);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    // Cuts the text nodes of a block to the remaining length and drops the nodes after the cut
+    private static void cutText(ObjectNode node, int[] remaining) {
+        if (node.path("text").isTextual()) {
+            String text = node.get("text").asText();
+            node.put("text", text.substring(0, Math.min(text.length(), remaining[0])));
+            remaining[0] -= node.get("text").asText().length();
+        }
+        if (node.path("children").isArray()) {
+            ArrayNode children = node.arrayNode();
+            for (JsonNode child : node.get("children")) {
+                if (remaining[0] <= 0) {
+                    break;
+                }
+                if (child.isObject()) {
+                    cutText((ObjectNode) child, remaining);
+                }
+                children.add(child);
+            }
+            node.set("children", children);
+        }
+    }
+
+    private static String text(JsonNode node) {
+        StringBuilder text = new StringBuilder(node.path("text").asText(""));
+        for (JsonNode child : node.path("children")) {
+            text.append(text(child));
+        }
+        return text.toString();
+    }
+
+    private static int textLength(JsonNode node) {
+        int length = node.path("text").isTextual() ? node.get("text").asText().length() : 0;
+        for (JsonNode child : node.path("children")) {
+            length += textLength(child);
+        }
+        return length;
+    }
+
+    // Summaries written before they kept the Lexical structure are cut mid-document, this rewrites all of them
+    public void rebuildSummaries() {
+        backgroundJobs.start("summary rebuild", () -> {
+            long rewritten = 0;
+            UUID after = null;
+            List<ArticleEntity> batch;
+            do {
+                batch = articleRepository.findBatchAfter(after, summaryRebuildBatchSize);
+                for (ArticleEntity article : batch) {
+                    String summary = summarize(article.getContent());
+                    if (!summary.equals(article.getSummary())) {
+                        articleRepository.updateSummary(article.getId(), summary);
+                        rewritten++;
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    after = batch.getLast().getId();
+                }
+            } while (batch.size() == summaryRebuildBatchSize);
+
+            if (rewritten > 0) {
+                articleCache.invalidateAll();
+                articleListCache.invalidate();
+            }
+            log.info("Rewrote {} article summaries", rewritten);
+        });
+    }
+
     public UserEntity getUserFromUsername(String username) {
         Optional<UserEntity> user = userRepository.findByUsername(username);
         if (user.isEmpty()) {
@@ -88,18 +261,27 @@ public class ArticlesService {
         return getUserFromUsername(username);
     }
 
+    private String usernameOf(ArticleEntity article) {
+        return article.getAuthor() == null ? null : article.getAuthor().getUsername();
+    }
+
     private Sort parseSortParam(String sortParam) {
         String[] parts = sortParam.split(",");
         List<Sort.Order> orders = new ArrayList<>();
+        boolean byComments = false;
 
         for (String part : parts) {
             String[] fieldAndDirection = part.trim().split("\\s+");
-            if (fieldAndDirection.length == 1) {
-                orders.add(new Sort.Order(Sort.Direction.ASC, fieldAndDirection[0]));
-            } else {
-                Sort.Direction direction = Sort.Direction.fromString(fieldAndDirection[1]);
-                orders.add(new Sort.Order(direction, fieldAndDirection[0]));
-            }
+            Sort.Direction direction = fieldAndDirection.length == 1 ? Sort.Direction.ASC : Sort.Direction.fromString(fieldAndDirection[1]);
+            Sort.Order order = new Sort.Order(direction, fieldAndDirection[0]);
+            // Articles nobody commented on come after the discussed ones, whichever the direction
+            orders.add(order.getProperty().equals("lastCommentAt") ? order.nullsLast() : order);
+            byComments |= order.getProperty().equals("lastCommentAt") || order.getProperty().equals("commentCount");
+        }
+
+        // Many articles share a comment count or have no comments at all, the id keeps their order stable across pages
+        if (byComments) {
+            orders.add(Sort.Order.asc("id"));
         }
 
         return Sort.by(orders);
@@ -111,24 +293,106 @@ public class ArticlesService {
         return entities.stream().map(ArticleConvertor::toDto).collect(Collectors.toList());
     }
 
-    public List<Article> getArticlesParams(int size, int from, String title, String author, String category, LocalDateTime createdDate, String sort) {
-        Page<ArticleEntity> entities;
-        Sort sortCriteria = parseSortParam(sort);
-        Pageable page = PageRequest.of(from, size, sortCriteria);
-
-        Specification<ArticleEntity> specification = new SpecificationBuilder<ArticleEntity>()
+    private SpecificationBuilder<ArticleEntity> filterBy(String title, String author, String category, LocalDateTime createdDate) {
+        return new SpecificationBuilder<ArticleEntity>()
                 .and(ArticleSpecification.hasTitle(title))
                 .and(ArticleSpecification.hasAuthor(author))
                 .and(ArticleSpecification.createdAfter(createdDate))
-                .and(ArticleSpecification.hasCategory(category))
+                .and(ArticleSpecification.hasCategory(category));
+    }
+
+    // List views get the summary projection, the full body is only served by getArticleById
+    public List<ArticleSummary> getArticlesParams(int size, int from, String title, String author, String category, LocalDateTime createdDate, String sort) {
+        Sort sortCriteria = parseSortParam(sort);
+        Pageable page = PageRequest.of(from, size, sortCriteria);
+
+        Specification<ArticleEntity> specification = filterBy(title, author, category, createdDate).build();
+
+        return articleListCache.get(size, from, title, author, category, createdDate, sortCriteria,
+                () -> articleRepository.findSummaries(specification, sortCriteria, page.getOffset(), page.getPageSize()));
+    }
+
+    // Slice paging: one extra row answers "is there a next page" without a count query
+    public ArticlePage getArticlesSlice(int size, int from, String title, String author, String category, LocalDateTime createdDate, String sort, boolean withTotal) {
+        Sort sortCriteria = parseSortParam(sort);
+        Pageable page = PageRequest.of(from, size, sortCriteria);
+
+        Specification<ArticleEntity> specification = filterBy(title, author, category, createdDate).build();
+
+        List<ArticleSummary> summaries = articleRepository.findSummaries(specification, sortCriteria, page.getOffset(), size + 1);
+
+        boolean hasNext = summaries.size() > size;
+
+        return ArticlePage.builder()
+                .articles(hasNext ? summaries.subList(0, size) : summaries)
+                .hasNext(hasNext)
+                .approximateTotal(withTotal ? getApproximateTotal(title, author, category, createdDate) : null)
                 .build();
+    }
 
-        entities = articleRepository.findAll(specification, page);
+    public long getApproximateTotal(String title, String author, String category, LocalDateTime createdDate) {
+        Specification<ArticleEntity> specification = filterBy(title, author, category, createdDate).build();
 
-        return entities.stream().map(ArticleConvertor::toDto).collect(Collectors.toList());
+        return articleCountCache.get(title, author, category, createdDate, () -> articleRepository.count(specification));
+    }
+
+    public ArticleFacets getFacets(String title, String author, String category, LocalDateTime createdDate) {
+        if (title == null && createdDate == null) {
+            return articleFacetService.getFacets(author, category);
+        }
+
+        Specification<ArticleEntity> specification = filterBy(title, author, category, createdDate).build();
+
+        return articleFacetService.rollUp(articleRepository.findFacetCells(specification));
+    }
+
+    // Keyset paging: seeks past the cursor instead of using OFFSET and never runs a count query
+    public ArticlePage getArticlesAfter(int size, String after, String title, String author, String category, LocalDateTime createdDate, String sort, boolean withTotal) {
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size must be positive");
+        }
+
+        Sort seekSort = ArticleCursor.seekSort(parseSortParam(sort));
+        ArticleCursor cursor = ArticleCursor.decode(after, seekSort);
+
+        Specification<ArticleEntity> specification = filterBy(title, author, category, createdDate)
+                .and(ArticleSpecification.after(cursor, seekSort))
+                .build();
+
+        // One extra row tells us whether there is a next page
+        List<ArticleSummary> summaries = articleRepository.findSummaries(specification, seekSort, 0, size + 1);
+
+        boolean hasNext = summaries.size() > size;
+        List<ArticleSummary> pageSummaries = hasNext ? summaries.subList(0, size) : summaries;
+
+        return ArticlePage.builder()
+                .articles(pageSummaries)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? ArticleCursor.encode(pageSummaries.getLast(), seekSort) : null)
+                .approximateTotal(withTotal ? getApproximateTotal(title, author, category, createdDate) : null)
+                .build();
+    }
+
+    // Validator of a list request, answered from the list cache counters without running the query
+    public String getArticlesETag(String kind, int size, Object position, String title, String author, String category,
+                                  LocalDateTime createdDate, String sort, boolean withTotal) {
+        return articleListCache.etag(kind, size, position, title, author, category, createdDate, sort, withTotal);
+    }
+
+    public long getArticlesLastModified() {
+        return articleListCache.lastModified();
+    }
+
+    // Cheap version of an article for conditional GETs, empty if the article doesn't exist
+    public Optional<ArticleVersion> getArticleVersion(UUID id) {
+        return articleRepository.findArticleVersionById(id);
     }
 
     public Article getArticleById(UUID id) {
+        return articleCache.get(id, this::loadArticle);
+    }
+
+    private Article loadArticle(UUID id) {
         Optional<ArticleEntity> article = articleRepository.findById(id);
 
         if(article.isEmpty()) {
@@ -145,6 +409,21 @@ public class ArticlesService {
         }
 
         articleRepository.deleteById(id);
+        releaseUploads(article.get());
+        articleViewService.articleDeleted(id);
+        articleTrendingService.articleDeleted(id);
+        articleFacetService.articleRemoved(article.get().getCategory(), usernameOf(article.get()), article.get().getCreatedDate());
+        articleCache.invalidate(id);
+        articleListCache.invalidate();
+        articleSearchService.delete(id);
+        liveUpdateService.articleDeleted(id);
+    }
+
+    public void releaseUploads(ArticleEntity article) {
+        blobService.release(UploadStorageService.ARTICLE_IMAGES, article.getImageUrl());
+        if (article.getMediaUrls() != null) {
+            article.getMediaUrls().forEach(media -> blobService.release(UploadStorageService.ARTICLE_MEDIA, media));
+        }
     }
 
     public Article createArticle(ArticleRequest articleRequest, Principal principal) {
@@ -154,12 +433,20 @@ public class ArticlesService {
 
         UserEntity author = getPrincipalUser(principal);
 
-        ArticleEntity newArticle = new ArticleEntity(null, articleRequest.title(), articleRequest.content(), summarize(articleRequest.content()), LocalDateTime.now(), LocalDateTime.now(), null, new ArrayList<String>(), articleRequest.category(), null, null, null, null, null, null, author, author);
+        ArticleEntity newArticle = new ArticleEntity(null, articleRequest.title(), articleRequest.content(), summarize(articleRequest.content()), LocalDateTime.now(), LocalDateTime.now(), null, new ArrayList<String>(), articleRequest.category(), null, null, null, null, null, null, author, author, null, 0, null, null);
 
-        return ArticleConvertor.toDto(articleRepository.save(newArticle));
+        ArticleEntity savedArticle = articleRepository.save(newArticle);
+        articleFacetService.articleAdded(savedArticle.getCategory(), usernameOf(savedArticle), savedArticle.getCreatedDate());
+        articleListCache.invalidate();
+        articleSearchService.index(savedArticle);
+        articleTrendingService.articleCreated(savedArticle.getId(), savedArticle.getCreatedDate());
+        liveUpdateService.articleCreated(savedArticle);
+
+        return ArticleConvertor.toDto(savedArticle);
     }
 
-    public Article updateArticle(UUID id, ArticleRequest articleRequest, Principal principal) {
+    // expectedVersion comes from If-Match, null skips the check
+    public Article updateArticle(UUID id, ArticleRequest articleRequest, Long expectedVersion, Principal principal) {
         if (!isValidRequest(articleRequest)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Fields can not be empty");
         }
@@ -173,15 +460,109 @@ public class ArticlesService {
         }
 
         ArticleEntity newArticle = article.get();
+        checkVersion(expectedVersion, newArticle);
+        String previousCategory = newArticle.getCategory();
 
-        newArticle.setContent(articleRequest.content());
+        if (!articleRequest.content().equals(newArticle.getContent())) {
+            newArticle.setContent(articleRequest.content());
+            newArticle.setSummary(summarize(articleRequest.content()));
+        }
         newArticle.setTitle(articleRequest.title());
         newArticle.setCategory(articleRequest.category());
-        newArticle.setSummary(summarize(articleRequest.content()));
         newArticle.setUpdatedDate(LocalDateTime.now());
         newArticle.setEditor(editor);
 
-        return ArticleConvertor.toDto(articleRepository.save(newArticle));
+        ArticleEntity savedArticle = saveVersioned(newArticle);
+        articleEdited(savedArticle, previousCategory);
+
+        return ArticleConvertor.toDto(savedArticle);
+    }
+
+    // Only the members in the patch change. contentEdits need If-Match, their offsets are only meaningful against
+    // the version they were made on. The summary is recomputed only when the content actually changed, and a
+    // patch that changes nothing isn't written at all.
+    public Article patchArticle(UUID id, ArticlePatch patch, Long expectedVersion, Principal principal) {
+        if (!patch.getContentEdits().isEmpty() && expectedVersion == null) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_REQUIRED, "If-Match is required for content edits");
+        }
+        if ((patch.hasTitle() && !isValidParam(patch.getTitle())) || (patch.hasContent() && !isValidParam(patch.getContent()))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Fields can not be empty");
+        }
+
+        ArticleEntity article = getArticleEntity(id);
+        checkVersion(expectedVersion, article);
+        String previousCategory = article.getCategory();
+
+        String content = article.getContent();
+        if (patch.hasContent()) {
+            content = patch.getContent();
+        } else if (!patch.getContentEdits().isEmpty()) {
+            content = ArticlePatch.apply(content, patch.getContentEdits());
+            if (content == null) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Content edits are out of range");
+            }
+            if (!isValidParam(content)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Fields can not be empty");
+            }
+        }
+
+        boolean changed = false;
+        if (patch.hasTitle() && !patch.getTitle().equals(article.getTitle())) {
+            article.setTitle(patch.getTitle());
+            changed = true;
+        }
+        if (patch.hasCategory() && !Objects.equals(patch.getCategory(), article.getCategory())) {
+            article.setCategory(patch.getCategory());
+            changed = true;
+        }
+        if (!content.equals(article.getContent())) {
+            article.setContent(content);
+            article.setSummary(summarize(content));
+            changed = true;
+        }
+        if (!changed) {
+            return ArticleConvertor.toDto(article);
+        }
+
+        article.setUpdatedDate(LocalDateTime.now());
+        article.setEditor(getPrincipalUser(principal));
+
+        ArticleEntity savedArticle = saveVersioned(article);
+        articleEdited(savedArticle, previousCategory);
+
+        return ArticleConvertor.toDto(savedArticle);
+    }
+
+    private void articleEdited(ArticleEntity savedArticle, String previousCategory) {
+        if (!Objects.equals(previousCategory, savedArticle.getCategory())) {
+            articleFacetService.articleRemoved(previousCategory, usernameOf(savedArticle), savedArticle.getCreatedDate());
+            articleFacetService.articleAdded(savedArticle.getCategory(), usernameOf(savedArticle), savedArticle.getCreatedDate());
+        }
+        articleCache.invalidate(savedArticle.getId());
+        articleListCache.invalidate();
+        articleSearchService.index(savedArticle);
+        liveUpdateService.articleUpdated(savedArticle);
+    }
+
+    // A write that got in between the read and this save fails the version check of the update statement
+    private ArticleEntity saveVersioned(ArticleEntity article) {
+        try {
+            return articleRepository.save(article);
+        } catch (OptimisticLockingFailureException e) {
+            throw versionConflict(article.getId());
+        }
+    }
+
+    private static void checkVersion(Long expectedVersion, ArticleEntity article) {
+        ArticleVersion current = ArticleVersion.of(article);
+        VersionConflictException.check("Article", expectedVersion, current.version(), current.etag());
+    }
+
+    // The 409 carries the ETag a GET of the article sends now
+    private VersionConflictException versionConflict(UUID id) {
+        ArticleVersion current = articleRepository.findArticleVersionById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Article not found"));
+        return new VersionConflictException(HttpStatus.CONFLICT, "Article", current.version(), current.etag());
     }
 
     public Article uploadImage(MultipartFile file, UUID id, Double cropX, Double cropY, Double cropWidth, Double cropHeight, Double cropScale, Principal principal) {
@@ -192,20 +573,14 @@ public class ArticlesService {
 
         UserEntity editor = getPrincipalUser(principal);
 
-        File directory = new File("uploads/article-images");
-        if(!directory.exists()) {
-            directory.mkdirs();
-        }
-
         String extension = file.getOriginalFilename().substring(file.getOriginalFilename().lastIndexOf("."));
-        String fileName = "article-" + article.get().getId() + extension;
-        String filePath = System.getProperty("user.dir") + "/uploads/article-images/" + fileName;
-        Path path = Paths.get(filePath);
+        String fileName;
         try {
-            Files.copy(file.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
+            fileName = blobService.store(file, extension);
         } catch (IOException e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to upload article image");
         }
+        String previousImage = article.get().getImageUrl();
 
         // Save the full image and crop metadata
         article.get().setImageUrl(fileName);
@@ -217,7 +592,21 @@ public class ArticlesService {
         article.get().setUpdatedDate(LocalDateTime.now());
         article.get().setEditor(editor);
 
-        return ArticleConvertor.toDto(articleRepository.save(article.get()));
+        ArticleEntity savedArticle;
+        try {
+            savedArticle = saveVersioned(article.get());
+        } catch (VersionConflictException e) {
+            blobService.release(UploadStorageService.ARTICLE_IMAGES, fileName);
+            throw e;
+        }
+        blobService.release(UploadStorageService.ARTICLE_IMAGES, previousImage);
+        imageVariantService.renderCover(fileName, cropX, cropY, cropWidth, cropHeight);
+        articleCache.invalidate(savedArticle.getId());
+        articleListCache.invalidate();
+        articleSearchService.index(savedArticle);
+        liveUpdateService.articleUpdated(savedArticle);
+
+        return ArticleConvertor.toDto(savedArticle);
     }
 
     public Article uploadMedia(MultipartFile file, UUID id, Principal principal) {
@@ -226,25 +615,82 @@ public class ArticlesService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Article not found");
         }
 
-        File directory = new File("uploads/article-media");
-        if(!directory.exists()) {
-            directory.mkdirs();
-        }
-        
         String extension = file.getOriginalFilename().substring(file.getOriginalFilename().lastIndexOf("."));
-        String fileName = "article-" + article.get().getId() + "-" + article.get().getMediaUrls().size() + extension;
-        // String fileName = "media-" + UUID.randomUUID() + extension;
-        String filePath = System.getProperty("user.dir") + "/uploads/article-media/" + fileName;
-        Path path = Paths.get(filePath);
+        String fileName;
         try {
-            Files.copy(file.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
+            fileName = blobService.store(file, extension);
         } catch (IOException e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to upload article media");
         }
 
-        article.get().getMediaUrls().add(fileName);
+        return addMedia(article.get(), fileName);
+    }
+
+    // Adding media doesn't conflict with any other edit, losing the version race is retried on a fresh copy
+    private Article addMedia(ArticleEntity article, String fileName) {
+        ArticleEntity savedArticle;
+        for (int attempt = 1; ; attempt++) {
+            article.getMediaUrls().add(fileName);
+            article.setUpdatedDate(LocalDateTime.now());
+            try {
+                savedArticle = articleRepository.save(article);
+                break;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MEDIA_SAVE_ATTEMPTS) {
+                    blobService.release(UploadStorageService.ARTICLE_MEDIA, fileName);
+                    throw versionConflict(article.getId());
+                }
+                article = getArticleEntity(article.getId());
+            }
+        }
+
+        articleCache.invalidate(savedArticle.getId());
+        articleListCache.invalidate();
+        liveUpdateService.articleUpdated(savedArticle);
+
+        return ArticleConvertor.toDto(savedArticle);
+    }
+
+    private ArticleEntity getArticleEntity(UUID id) {
+        Optional<ArticleEntity> article = articleRepository.findById(id);
+        if(article.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Article not found");
+        }
+
+        return article.get();
+    }
+
+    // Resumable media uploads, for files over the multipart limit. Sessions belong to one article and one user.
+    public UploadSession startMediaUpload(UUID id, UploadInitRequest request, Principal principal) {
+        getArticleEntity(id);
+
+        return chunkedUploadService.start(id, principal.getName(), request);
+    }
+
+    public UploadSession getMediaUpload(UUID id, UUID uploadId, Principal principal) {
+        return chunkedUploadService.status(uploadId, id, principal.getName());
+    }
+
+    public UploadSession writeMediaChunk(UUID id, UUID uploadId, long offset, String sha256, InputStream body, Principal principal) {
+        return chunkedUploadService.writeChunk(uploadId, id, principal.getName(), offset, sha256, body);
+    }
+
+    public void cancelMediaUpload(UUID id, UUID uploadId, Principal principal) {
+        chunkedUploadService.cancel(uploadId, id, principal.getName());
+    }
+
+    // Attaches the finished upload exactly like uploadMedia does
+    public Article completeMediaUpload(UUID id, UUID uploadId, Principal principal) {
+        ArticleEntity article = getArticleEntity(id);
+
+        String fileName;
+        try {
+            fileName = chunkedUploadService.complete(uploadId, id, principal.getName());
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to upload article media");
+        }
 
-        return ArticleConvertor.toDto(articleRepository.save(article.get()));
+        return addMedia(article, fileName);
     }
 
 }
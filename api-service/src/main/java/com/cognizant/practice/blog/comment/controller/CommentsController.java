@@ -4,13 +4,20 @@ import com.cognizant.practice.blog.article.dto.Article;
 import com.cognizant.practice.blog.article.entity.ArticleEntity;
 import com.cognizant.practice.blog.article.service.ArticlesService;
 import com.cognizant.practice.blog.comment.dto.Comment;
+import com.cognizant.practice.blog.comment.dto.CommentFeedFilter;
+import com.cognizant.practice.blog.comment.dto.CommentFeedPage;
+import com.cognizant.practice.blog.comment.dto.CommentPage;
 import com.cognizant.practice.blog.comment.dto.CommentRequest;
 import com.cognizant.practice.blog.comment.service.CommentsService;
+import com.cognizant.practice.blog.config.ETags;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,29 +25,90 @@ import java.util.UUID;
 @RestController
 public class CommentsController {
     private final CommentsService commentsService;
+    private final ArticlesService articlesService;
 
-    public CommentsController(CommentsService commentsService) {
+    public CommentsController(CommentsService commentsService, ArticlesService articlesService) {
         this.commentsService = commentsService;
+        this.articlesService = articlesService;
     }
 
-    @GetMapping(value="/comments")
-    public List<Comment> getAllComments() {
-        return commentsService.getAllComments();
+    // GET /comments?limit=50 -> moderation feed, newest first, pass the returned nextCursor as "after" to continue.
+    // Filters: articleId, author (username), from / to (creation date range), text (contained in the content, not indexed,
+    // see CommentFeedRepositoryImpl). Admin only.
+    @GetMapping(value="/comments", params="limit")
+    public CommentFeedPage getCommentFeed(@RequestParam int limit, @RequestParam(required = false) String after,
+                                          @RequestParam(required = false) UUID articleId, @RequestParam(required = false) String author,
+                                          @RequestParam(required = false) LocalDateTime from, @RequestParam(required = false) LocalDateTime to,
+                                          @RequestParam(required = false) String text) {
+        CommentFeedFilter filter = new CommentFeedFilter(articleId, blankToNull(author), from, to, blankToNull(text));
+        return commentsService.getCommentFeed(filter, limit, after);
     }
 
+    // GET /comments/{id} -> one comment when only its id is known, admin only
+    @GetMapping(value="/comments/{id}")
+    public Comment getCommentById(@PathVariable UUID id, WebRequest request) {
+        Comment comment = commentsService.getComment(id);
+        if (request.checkNotModified(ETags.ofVersion(comment.getVersion()))) {
+            return null;
+        }
+
+        return comment;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    // Deletions can't be expressed as a Last-Modified date, so comments are validated by ETag only
     @GetMapping(value="/articles/{id}/comments")
-    public List<Comment> getCommentsByArticleID(@PathVariable UUID id) {
+    public List<Comment> getCommentsByArticleID(@PathVariable UUID id, WebRequest request) {
+        Optional<String> version = commentsService.getCommentsVersion(id);
+        if (version.isPresent() && request.checkNotModified(ETags.of(id, version.get()))) {
+            return null;
+        }
+
         return commentsService.getCommentsByArticleId(id);
     }
 
+    // GET /articles/{id}/comments?limit=50 -> oldest first, pass the returned nextCursor as "after" to continue.
+    // expand=article adds the full article once to the page.
+    @GetMapping(value="/articles/{id}/comments", params="limit")
+    public CommentPage getCommentsPage(@PathVariable UUID id, @RequestParam int limit, @RequestParam(required = false) String after,
+                                       @RequestParam(required = false) List<String> expand, WebRequest request) {
+        boolean expandArticle = expand != null && expand.contains("article");
+        Optional<String> version = commentsService.getCommentsVersion(id);
+        if (version.isPresent() && request.checkNotModified(ETags.of(id, version.get(), limit, after, expandArticle))) {
+            return null;
+        }
+
+        CommentPage page = commentsService.getCommentsPage(id, limit, after);
+        if (expandArticle) {
+            page.setArticle(articlesService.getArticleById(id));
+        }
+        return page;
+    }
+
+    // GET /articles/{articleId}/comments/{commentId} -> one comment, its ETag is the "<version>" that If-Match takes
+    @GetMapping(value="/articles/{articleId}/comments/{commentId}")
+    public Comment getComment(@PathVariable UUID articleId, @PathVariable UUID commentId, WebRequest request) {
+        Comment comment = commentsService.getComment(articleId, commentId);
+        if (request.checkNotModified(ETags.ofVersion(comment.getVersion()))) {
+            return null;
+        }
+
+        return comment;
+    }
+
     @PostMapping(value="/articles/{id}/comments")
     public Comment createComment(@PathVariable UUID id, @RequestBody CommentRequest commentRequest, Principal user) {
         return commentsService.createComment(id, commentRequest, user);
     }
 
+    // If-Match: "<version>" -> 412 when the comment has moved on since that version, 409 when a concurrent edit won the race
     @PutMapping(value="/articles/{articleId}/comments/{commentId}")
-    public Comment editComment(@PathVariable UUID articleId, @PathVariable UUID commentId, @RequestBody CommentRequest commentRequest, Principal user) {
-        return commentsService.editComment(articleId, commentId, commentRequest, user);
+    public Comment editComment(@PathVariable UUID articleId, @PathVariable UUID commentId, @RequestBody CommentRequest commentRequest,
+                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, Principal user) {
+        return commentsService.editComment(articleId, commentId, commentRequest, ETags.parseVersion(ifMatch), user);
     }
 
     @DeleteMapping(value="/articles/{articleId}/comments/{commentId}")
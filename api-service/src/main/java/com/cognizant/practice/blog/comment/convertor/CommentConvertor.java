@@ -1,20 +1,27 @@
 package com.cognizant.practice.blog.comment.convertor;
 
-import com.cognizant.practice.blog.article.convertor.ArticleConvertor;
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
 import com.cognizant.practice.blog.comment.dto.Comment;
+import com.cognizant.practice.blog.comment.dto.CommentArticle;
 import com.cognizant.practice.blog.comment.entity.CommentEntity;
 import com.cognizant.practice.blog.user.convertor.UserConvertor;
 
 public class CommentConvertor {
     public static Comment toDto(CommentEntity commentEntity) {
+        return toDto(commentEntity, CommentArticle.of(commentEntity.getArticleEntity()));
+    }
+
+    // For comments of one article, which is looked up once instead of joined into every row
+    public static Comment toDto(CommentEntity commentEntity, CommentArticle article) {
         return Comment.builder()
                 .id(commentEntity.getId())
                 .content(commentEntity.getContent())
                 .dateCreated(commentEntity.getDateCreated())
                 .dateEdited(commentEntity.getDateEdited())
-                .article(ArticleConvertor.toDto(commentEntity.getArticleEntity()))
+                .article(article)
                 .author(UserConvertor.toDto(commentEntity.getAuthor()))
                 .editor(UserConvertor.toDto(commentEntity.getEditor()))
+                .version(commentEntity.getVersion())
                 .build();
     }
 
@@ -24,9 +31,10 @@ public class CommentConvertor {
                 .content(comment.getContent())
                 .dateCreated(comment.getDateCreated())
                 .dateEdited(comment.getDateEdited())
-                .articleEntity(ArticleConvertor.toEntity(comment.getArticle()))
+                .articleEntity(comment.getArticle() == null ? null : ArticleEntity.builder().id(comment.getArticle().id()).title(comment.getArticle().title()).build())
                 .author(UserConvertor.toEntity(comment.getAuthor()))
                 .editor(UserConvertor.toEntity(comment.getEditor()))
+                .version(comment.getVersion())
                 .build();
     }
 }
@@ -1,7 +1,5 @@
 package com.cognizant.practice.blog.comment.dto;
 
-import com.cognizant.practice.blog.article.dto.Article;
-import com.cognizant.practice.blog.article.entity.ArticleEntity;
 import com.cognizant.practice.blog.user.dto.User;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -22,8 +20,11 @@ public class Comment {
     private LocalDateTime dateCreated;
     private LocalDateTime dateEdited;
 
-    private Article article;
+    private CommentArticle article;
 
     private User author;
     private User editor;
+
+    // Send back in If-Match when editing
+    private Long version;
 }
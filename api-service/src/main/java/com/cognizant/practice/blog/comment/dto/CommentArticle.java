@@ -0,0 +1,12 @@
+package com.cognizant.practice.blog.comment.dto;
+
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+
+import java.util.UUID;
+
+// What a comment carries of its article, the full article is available once per page through expand=article
+public record CommentArticle(UUID id, String title) {
+    public static CommentArticle of(ArticleEntity article) {
+        return article == null ? null : new CommentArticle(article.getId(), article.getTitle());
+    }
+}
@@ -0,0 +1,33 @@
+package com.cognizant.practice.blog.comment.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+// Opaque keyset position in the (dateCreated, id) order of an article's comments
+public record CommentCursor(LocalDateTime dateCreated, UUID id) {
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((dateCreated + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CommentCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(token);
+            }
+            return new CommentCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.cognizant.practice.blog.comment.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Every filter is optional. author is an exact, case-insensitive username, text a case-insensitive substring of the content.
+public record CommentFeedFilter(UUID articleId, String author, LocalDateTime from, LocalDateTime to, String text) {
+}
@@ -0,0 +1,31 @@
+package com.cognizant.practice.blog.comment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Row of the admin comment feed: the comment plus the article and author fields the moderation table shows
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CommentFeedItem {
+    private UUID id;
+
+    private String content;
+    private LocalDateTime dateCreated;
+    private LocalDateTime dateEdited;
+    private Long version;
+
+    private UUID articleId;
+    private String articleTitle;
+
+    private UUID authorId;
+    private String authorUsername;
+
+    private String editorUsername;
+}
@@ -0,0 +1,20 @@
+package com.cognizant.practice.blog.comment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CommentFeedPage {
+    private List<CommentFeedItem> comments;
+
+    private boolean hasNext;
+    // Pass back as "after" to get the next page, null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,6 @@
+package com.cognizant.practice.blog.comment.dto;
+
+import java.time.LocalDateTime;
+
+public record CommentImportRequest(String content, String author, LocalDateTime dateCreated) {
+}
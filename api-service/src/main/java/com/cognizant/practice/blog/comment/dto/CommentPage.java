@@ -0,0 +1,24 @@
+package com.cognizant.practice.blog.comment.dto;
+
+import com.cognizant.practice.blog.article.dto.Article;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CommentPage {
+    // Only with expand=article, the comments themselves just reference it
+    private Article article;
+
+    private List<Comment> comments;
+
+    private boolean hasNext;
+    // Pass back as "after" to get the next page, null on the last page
+    private String nextCursor;
+}
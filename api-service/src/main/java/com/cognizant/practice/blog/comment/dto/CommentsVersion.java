@@ -0,0 +1,7 @@
+package com.cognizant.practice.blog.comment.dto;
+
+import java.time.LocalDateTime;
+
+// Changes on every create, edit and delete of an article's comments
+public record CommentsVersion(long count, LocalDateTime lastEdited) {
+}
@@ -13,7 +13,11 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "COMMENTS")
+// Comments of one article and the admin feed are both paged in (dateCreated, id) order
+@Table(name = "COMMENTS", indexes = {
+        @Index(name = "comments_article_created_idx", columnList = "articleEntity_id, dateCreated, id"),
+        @Index(name = "comments_created_idx", columnList = "dateCreated, id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -28,12 +32,17 @@ public class CommentEntity {
     
     private LocalDateTime dateCreated;
     private LocalDateTime dateEdited;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private ArticleEntity articleEntity;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private UserEntity author;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private UserEntity editor;
+
+    // Optimistic locking, every update checks and bumps it. Rows from before the column start at 0.
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version;
 }
@@ -0,0 +1,11 @@
+package com.cognizant.practice.blog.comment.repository;
+
+import com.cognizant.practice.blog.comment.dto.CommentCursor;
+import com.cognizant.practice.blog.comment.dto.CommentFeedFilter;
+import com.cognizant.practice.blog.comment.dto.CommentFeedItem;
+
+import java.util.List;
+
+public interface CommentFeedRepository {
+    List<CommentFeedItem> findFeed(CommentFeedFilter filter, CommentCursor after, int limit);
+}
@@ -1,12 +1,44 @@
 package com.cognizant.practice.blog.comment.repository;
 
+import com.cognizant.practice.blog.comment.dto.CommentsVersion;
 import com.cognizant.practice.blog.comment.entity.CommentEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface CommentsRepository extends JpaRepository<CommentEntity, UUID> {
+public interface CommentsRepository extends JpaRepository<CommentEntity, UUID>, CommentFeedRepository {
+    // Comment dtos embed their users and the id and title of their article, all of them come back in one select
+    @Override
+    @EntityGraph(attributePaths = {"author", "editor", "articleEntity"})
+    Optional<CommentEntity> findById(UUID id);
 
+    // Comments of one article: the caller looks the article up once, it isn't joined into every row
+    @EntityGraph(attributePaths = {"author", "editor"})
+    List<CommentEntity> findAllByArticleEntityIdOrderByDateCreatedAsc(UUID articleId);
+
+    // Keyset pages in (dateCreated, id) order, filtered on the foreign key column so the article row isn't joined for it
+    @EntityGraph(attributePaths = {"author", "editor"})
+    List<CommentEntity> findByArticleEntityIdOrderByDateCreatedAscIdAsc(UUID articleId, Limit limit);
+
+    @EntityGraph(attributePaths = {"author", "editor"})
+    @Query("select c from CommentEntity c where c.articleEntity.id = :articleId " +
+            "and (c.dateCreated > :dateCreated or (c.dateCreated = :dateCreated and c.id > :id)) " +
+            "order by c.dateCreated asc, c.id asc")
+    List<CommentEntity> findPageAfter(UUID articleId, LocalDateTime dateCreated, UUID id, Limit limit);
+
+    // Version lookup for conditional GETs, one aggregate row instead of the comments themselves
+    @Query("select new com.cognizant.practice.blog.comment.dto.CommentsVersion(count(c), max(c.dateEdited)) from CommentEntity c where c.articleEntity.id = :articleId")
+    CommentsVersion findCommentsVersionByArticleId(UUID articleId);
+
+    // Current version after an optimistic locking failure
+    @Query("select c.version from CommentEntity c where c.id = :id")
+    Optional<Long> findVersionById(UUID id);
 }
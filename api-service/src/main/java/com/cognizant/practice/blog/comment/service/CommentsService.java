@@ -3,15 +3,32 @@ package com.cognizant.practice.blog.comment.service;
 import com.cognizant.practice.blog.article.entity.ArticleEntity;
 import com.cognizant.practice.blog.comment.convertor.CommentConvertor;
 import com.cognizant.practice.blog.comment.dto.Comment;
+import com.cognizant.practice.blog.comment.dto.CommentArticle;
+import com.cognizant.practice.blog.comment.dto.CommentCursor;
+import com.cognizant.practice.blog.comment.dto.CommentFeedFilter;
+import com.cognizant.practice.blog.comment.dto.CommentFeedItem;
+import com.cognizant.practice.blog.comment.dto.CommentFeedPage;
+import com.cognizant.practice.blog.comment.dto.CommentPage;
 import com.cognizant.practice.blog.comment.dto.CommentRequest;
+import com.cognizant.practice.blog.comment.dto.CommentsVersion;
 import com.cognizant.practice.blog.comment.entity.CommentEntity;
 import com.cognizant.practice.blog.article.repository.ArticleRepository;
+import com.cognizant.practice.blog.article.service.ArticleCache;
+import com.cognizant.practice.blog.article.service.ArticleListCache;
+import com.cognizant.practice.blog.article.service.ArticleTrendingService;
 import com.cognizant.practice.blog.comment.repository.CommentsRepository;
+import com.cognizant.practice.blog.config.VersionConflictException;
+import com.cognizant.practice.blog.live.service.LiveUpdateService;
 import com.cognizant.practice.blog.user.convertor.UserConvertor;
 import com.cognizant.practice.blog.user.dto.User;
 import com.cognizant.practice.blog.user.entity.UserEntity;
 import com.cognizant.practice.blog.user.repository.UserRepository;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -24,14 +41,29 @@ import java.util.stream.Collectors;
 
 @Service
 public class CommentsService {
+    private static final Logger log = LoggerFactory.getLogger(CommentsService.class);
+
+    private static final int MAX_PAGE_SIZE = 500;
+
     public CommentsRepository commentsRepository;
     public ArticleRepository articleRepository;
     public UserRepository userRepository;
+    public ArticleTrendingService articleTrendingService;
+    // Articles and their listings carry the comment count and last comment date
+    public ArticleCache articleCache;
+    public ArticleListCache articleListCache;
+    public LiveUpdateService liveUpdateService;
 
-    public CommentsService(CommentsRepository commentsRepository, ArticleRepository articleRepository, UserRepository userRepository) {
+    public CommentsService(CommentsRepository commentsRepository, ArticleRepository articleRepository, UserRepository userRepository,
+                           ArticleTrendingService articleTrendingService, ArticleCache articleCache, ArticleListCache articleListCache,
+                           LiveUpdateService liveUpdateService) {
         this.commentsRepository = commentsRepository;
         this.articleRepository = articleRepository;
         this.userRepository = userRepository;
+        this.articleTrendingService = articleTrendingService;
+        this.articleCache = articleCache;
+        this.articleListCache = articleListCache;
+        this.liveUpdateService = liveUpdateService;
     }
 
     // public UserEntity getPrincipalUser(Principal author) {
@@ -64,16 +96,85 @@ public class CommentsService {
         return request.content() != null && !request.content().isEmpty();
     }
 
-    public List<Comment> getAllComments() {
-        return commentsRepository.findAll().stream().map(CommentConvertor::toDto).collect(Collectors.toList());
+    public CommentFeedPage getCommentFeed(CommentFeedFilter filter, int limit, String after) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        List<CommentFeedItem> comments = commentsRepository.findFeed(filter, CommentCursor.decode(after), limit + 1);
+
+        boolean hasNext = comments.size() > limit;
+        List<CommentFeedItem> page = hasNext ? comments.subList(0, limit) : comments;
+
+        return CommentFeedPage.builder()
+                .comments(page)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? new CommentCursor(page.getLast().getDateCreated(), page.getLast().getId()).encode() : null)
+                .build();
+    }
+
+    public Comment getComment(UUID commentId) {
+        return commentsRepository.findById(commentId)
+                .map(CommentConvertor::toDto)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Comment not found"));
     }
 
     public List<Comment> getCommentsByArticleId(UUID id) {
-        Optional<ArticleEntity> article = articleRepository.findById(id);
-        if (article.isEmpty())
+        CommentArticle article = getCommentArticle(id);
+
+        return commentsRepository.findAllByArticleEntityIdOrderByDateCreatedAsc(id).stream()
+                .map(comment -> CommentConvertor.toDto(comment, article))
+                .collect(Collectors.toList());
+    }
+
+    public Comment getComment(UUID articleId, UUID commentId) {
+        CommentArticle article = getCommentArticle(articleId);
+        Optional<CommentEntity> comment = commentsRepository.findById(commentId);
+        if (comment.isEmpty() || !articleId.equals(comment.get().getArticleEntity().getId()))
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Comment not found");
+
+        return CommentConvertor.toDto(comment.get(), article);
+    }
+
+    private CommentArticle getCommentArticle(UUID articleId) {
+        Optional<String> title = articleRepository.findTitleById(articleId);
+        if (title.isEmpty())
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Article not found");
 
-        return article.get().getComments().stream().map(CommentConvertor::toDto).collect(Collectors.toList());
+        return new CommentArticle(articleId, title.get());
+    }
+
+    // size + 1 rows are read, the extra one only tells whether there is a next page
+    public CommentPage getCommentsPage(UUID articleId, int limit, String after) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        CommentArticle article = getCommentArticle(articleId);
+
+        CommentCursor cursor = CommentCursor.decode(after);
+        List<CommentEntity> comments = cursor == null
+                ? commentsRepository.findByArticleEntityIdOrderByDateCreatedAscIdAsc(articleId, Limit.of(limit + 1))
+                : commentsRepository.findPageAfter(articleId, cursor.dateCreated(), cursor.id(), Limit.of(limit + 1));
+
+        boolean hasNext = comments.size() > limit;
+        List<CommentEntity> page = hasNext ? comments.subList(0, limit) : comments;
+
+        return CommentPage.builder()
+                .comments(page.stream().map(comment -> CommentConvertor.toDto(comment, article)).collect(Collectors.toList()))
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? new CommentCursor(page.getLast().getDateCreated(), page.getLast().getId()).encode() : null)
+                .build();
+    }
+
+    // Comments carry their article's title, so the article version is part of the comments version
+    public Optional<String> getCommentsVersion(UUID articleId) {
+        Optional<LocalDateTime> articleVersion = articleRepository.findUpdatedDateById(articleId);
+        if (articleVersion.isEmpty())
+            return Optional.empty();
+
+        CommentsVersion commentsVersion = commentsRepository.findCommentsVersionByArticleId(articleId);
+
+        return Optional.of(articleVersion.get() + "/" + commentsVersion.count() + "/" + commentsVersion.lastEdited());
     }
 
     public Comment createComment(UUID id, CommentRequest commentRequest, Principal user) {
@@ -86,12 +187,19 @@ public class CommentsService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Article not found");
 
         UserEntity author = getPrincipalUser(user);
-        CommentEntity newComment = new CommentEntity(null, commentRequest.content(), LocalDateTime.now(), LocalDateTime.now(), article.get(), author, author);
+        CommentEntity newComment = new CommentEntity(null, commentRequest.content(), LocalDateTime.now(), LocalDateTime.now(), article.get(), author, author, null);
+
+        Comment comment = CommentConvertor.toDto(commentsRepository.save(newComment));
+        articleRepository.commentAdded(id, newComment.getDateCreated(), LocalDateTime.now());
+        commentStatsChanged(id);
+        articleTrendingService.commentAdded(id);
+        liveUpdateService.commentCreated(id, comment);
 
-        return CommentConvertor.toDto(commentsRepository.save(newComment));
+        return comment;
     }
 
-    public Comment editComment(UUID articleId, UUID commentId, CommentRequest commentRequest, Principal user) {
+    // expectedVersion comes from If-Match, null skips the check
+    public Comment editComment(UUID articleId, UUID commentId, CommentRequest commentRequest, Long expectedVersion, Principal user) {
         if (!isValidRequest(commentRequest)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Fields can not be empty");
         }
@@ -107,12 +215,24 @@ public class CommentsService {
 
         
         CommentEntity targetComment = comment.get();
+        VersionConflictException.check("Comment", expectedVersion, targetComment.getVersion());
 
         targetComment.setContent(commentRequest.content());
         targetComment.setDateEdited(LocalDateTime.now());
         targetComment.setEditor(editor);
 
-        return CommentConvertor.toDto(commentsRepository.save(targetComment));
+        Comment edited;
+        try {
+            edited = CommentConvertor.toDto(commentsRepository.save(targetComment));
+        } catch (OptimisticLockingFailureException e) {
+            // Edited by someone else between the read and this save
+            Long current = commentsRepository.findVersionById(commentId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Comment not found"));
+            throw new VersionConflictException(HttpStatus.CONFLICT, "Comment", current);
+        }
+        liveUpdateService.commentEdited(targetComment.getArticleEntity().getId(), edited);
+
+        return edited;
     }
 
     public void deleteComment(UUID articleId, UUID commentId, Principal user) {
@@ -124,6 +244,26 @@ public class CommentsService {
         if (comment.isEmpty())
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Comment not found");
 
+        UUID commentArticleId = comment.get().getArticleEntity().getId();
         commentsRepository.delete(comment.get());
+        articleRepository.commentRemoved(commentArticleId, LocalDateTime.now());
+        commentStatsChanged(commentArticleId);
+        liveUpdateService.commentDeleted(commentArticleId, commentId);
+    }
+
+    private void commentStatsChanged(UUID articleId) {
+        articleCache.invalidate(articleId);
+        articleListCache.commentsChanged(articleId);
+    }
+
+    // The counters are only ever changed in place, this catches whatever slipped past them
+    @Scheduled(fixedDelayString = "${blog.comments.reconcile-interval-ms}", initialDelayString = "${blog.comments.reconcile-interval-ms}")
+    public void reconcileCommentStats() {
+        int repaired = articleRepository.reconcileCommentStats(LocalDateTime.now());
+        if (repaired > 0) {
+            log.info("Repaired comment statistics of {} articles", repaired);
+            articleCache.invalidateAll();
+            articleListCache.invalidate();
+        }
     }
 }
@@ -0,0 +1,42 @@
+package com.cognizant.practice.blog.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Long admin jobs (rebuilds, backfills) run here instead of on the request thread, the endpoints answer 202
+// and the outcome goes to the log. A job runs at most once at a time.
+@Component
+public class BackgroundJobs {
+    private static final Logger log = LoggerFactory.getLogger(BackgroundJobs.class);
+
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public void start(String name, Runnable job) {
+        if (!running.add(name)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "The " + name + " is already running");
+        }
+
+        Thread.ofVirtual().name(name).start(() -> {
+            long started = System.nanoTime();
+            try {
+                job.run();
+                log.info("Finished the {} in {} ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            } catch (RuntimeException e) {
+                log.error("The {} failed", name, e);
+            } finally {
+                running.remove(name);
+            }
+        });
+    }
+
+    public boolean isRunning(String name) {
+        return running.contains(name);
+    }
+}
@@ -0,0 +1,34 @@
+package com.cognizant.practice.blog.config;
+
+import com.cognizant.practice.blog.storage.service.BlobService;
+import com.cognizant.practice.blog.storage.service.BlobStore;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.util.List;
+
+// Serves <sha-256><extension> names out of the blob store, anything else falls through to the upload directories
+public class BlobResourceResolver extends AbstractResourceResolver {
+    private final BlobStore blobStore;
+
+    public BlobResourceResolver(BlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath, List<? extends Resource> locations, ResourceResolverChain chain) {
+        String hash = BlobService.hashOf(requestPath);
+        if (hash == null) {
+            return chain.resolveResource(request, requestPath, locations);
+        }
+
+        return blobStore.get(hash, requestPath).orElse(null);
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations, ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+}
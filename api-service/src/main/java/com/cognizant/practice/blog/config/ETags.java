@@ -0,0 +1,62 @@
+package com.cognizant.practice.blog.config;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class ETags {
+    // Strong ETag from the values that identify one version of a resource
+    public static String of(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Versioned writes take the ETag in If-Match, "3", "3.<suffix>" or W/"3", only the version counts.
+    // Absent or * matches any version.
+    public static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        int dot = value.indexOf('.');
+        if (dot >= 0) {
+            value = value.substring(0, dot);
+        }
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "If-Match must be a version number");
+        }
+    }
+
+    // ETag of a single versioned entity, the same value its GET sends, If-Match takes and conflicts answer with.
+    // Parts of the representation that change without a new version are hashed into a suffix, "3.<hash>".
+    public static String ofVersion(long version, Object... unversioned) {
+        if (unversioned.length == 0) {
+            return "\"" + version + "\"";
+        }
+
+        return "\"" + version + "." + of(unversioned).substring(1, 13) + "\"";
+    }
+}
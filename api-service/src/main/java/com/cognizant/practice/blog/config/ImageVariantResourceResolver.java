@@ -0,0 +1,50 @@
+package com.cognizant.practice.blog.config;
+
+import com.cognizant.practice.blog.storage.dto.ImageVariant;
+import com.cognizant.practice.blog.storage.service.ImageVariantService;
+import com.cognizant.practice.blog.storage.service.UploadStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.util.List;
+import java.util.Locale;
+
+// <source>/<variant>-<crop key>.jpg from disk, or the source image itself while the variant is still being rendered
+public class ImageVariantResourceResolver extends AbstractResourceResolver {
+    private final ImageVariantService imageVariantService;
+
+    public ImageVariantResourceResolver(ImageVariantService imageVariantService) {
+        this.imageVariantService = imageVariantService;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath, List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource variant = chain.resolveResource(request, requestPath, locations);
+        if (variant != null) {
+            return variant;
+        }
+
+        int slash = requestPath.lastIndexOf('/');
+        int dash = requestPath.indexOf('-', slash + 1);
+        if (slash <= 0 || dash < 0) {
+            return null;
+        }
+
+        String source = requestPath.substring(0, slash);
+        String variantName = requestPath.substring(slash + 1, dash).toUpperCase(Locale.ROOT);
+        String area = ImageVariant.AVATAR.name().equals(variantName) ? UploadStorageService.PROFILE_PICTURES : UploadStorageService.ARTICLE_IMAGES;
+
+        Resource original = imageVariantService.source(area, source).orElse(null);
+        if (original != null) {
+            request.setAttribute(MediaResourceHttpRequestHandler.NOT_FINGERPRINTED, true);
+        }
+        return original;
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations, ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+}
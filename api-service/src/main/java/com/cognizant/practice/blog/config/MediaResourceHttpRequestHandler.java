@@ -0,0 +1,65 @@
+package com.cognizant.practice.blog.config;
+
+import com.cognizant.practice.blog.storage.service.BlobService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Uploads and image variants. Content-addressed names never change content, so they are cached for a year
+// without revalidation. Anything else (legacy names, a variant that is still being rendered) is revalidated
+// against the ETag / Last-Modified on every use.
+public final class MediaResourceHttpRequestHandler extends ResourceHttpRequestHandler {
+    // Set by resolvers that answer with something other than what the url names
+    public static final String NOT_FINGERPRINTED = MediaResourceHttpRequestHandler.class.getName() + ".NOT_FINGERPRINTED";
+
+    private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue();
+    private static final String REVALIDATE = CacheControl.noCache().cachePublic().getHeaderValue();
+
+    // Variant names carry a crop key and a content-addressed source, every file under them is fingerprinted
+    private final boolean fingerprintedLocation;
+
+    public MediaResourceHttpRequestHandler(boolean fingerprintedLocation) {
+        this.fingerprintedLocation = fingerprintedLocation;
+        setResourceHttpMessageConverter(new SendfileResourceHttpMessageConverter());
+        setResourceRegionHttpMessageConverter(new SendfileResourceRegionHttpMessageConverter());
+        setEtagGenerator(MediaResourceHttpRequestHandler::etag);
+    }
+
+    public static String etag(Resource resource) {
+        String hash = BlobService.hashOf(resource.getFilename());
+        if (hash != null) {
+            return "\"" + hash + "\"";
+        }
+
+        try {
+            return ETags.of(resource.getFilename(), resource.lastModified(), resource.contentLength());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    protected void setHeaders(HttpServletResponse response, Resource resource, MediaType mediaType) throws IOException {
+        super.setHeaders(response, resource, mediaType);
+
+        // Decided on the requested name, a precompressed sibling of a blob is just as immutable as the blob
+        String path = (String) getRequestAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        boolean fingerprinted = !Boolean.TRUE.equals(getRequestAttribute(NOT_FINGERPRINTED))
+                && (fingerprintedLocation || BlobService.hashOf(path) != null);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, fingerprinted ? IMMUTABLE : REVALIDATE);
+    }
+
+    private static Object getRequestAttribute(String name) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null : attributes.getAttribute(name, RequestAttributes.SCOPE_REQUEST);
+    }
+}
@@ -0,0 +1,43 @@
+package com.cognizant.practice.blog.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+
+// Hands a file range to Tomcat's sendfile, the kernel copies it to the socket without passing through the heap.
+// Only used when the connector advertises support (plain NIO, not TLS) and the range is big enough to be worth it.
+public class Sendfile {
+    private static final String SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String START = "org.apache.tomcat.sendfile.start";
+    private static final String END = "org.apache.tomcat.sendfile.end";
+
+    // Tomcat DefaultServlet's default sendfileSize, smaller bodies are written by the converter as before
+    private static final long MIN_LENGTH = 48 * 1024;
+
+    // end is exclusive, when this returns true nothing may be written to the response body
+    public static boolean serve(Resource resource, long start, long end) throws IOException {
+        if (end - start < MIN_LENGTH || !resource.isFile()) {
+            return false;
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return false;
+        }
+
+        HttpServletRequest request = servletAttributes.getRequest();
+        if (!Boolean.TRUE.equals(request.getAttribute(SUPPORT))) {
+            return false;
+        }
+
+        request.setAttribute(FILENAME, resource.getFile().getAbsolutePath());
+        request.setAttribute(START, start);
+        request.setAttribute(END, end);
+        return true;
+    }
+}
@@ -0,0 +1,17 @@
+package com.cognizant.practice.blog.config;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+
+import java.io.IOException;
+
+// Whole-file responses for media, through sendfile when the container can do it
+public class SendfileResourceHttpMessageConverter extends ResourceHttpMessageConverter {
+    @Override
+    protected void writeContent(Resource resource, HttpOutputMessage outputMessage) throws IOException {
+        if (!Sendfile.serve(resource, 0, resource.contentLength())) {
+            super.writeContent(resource, outputMessage);
+        }
+    }
+}
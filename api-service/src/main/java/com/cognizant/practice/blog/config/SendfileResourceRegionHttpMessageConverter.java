@@ -0,0 +1,27 @@
+package com.cognizant.practice.blog.config;
+
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
+
+import java.io.IOException;
+
+// Single range responses (video seeking), through sendfile when the container can do it.
+// Multipart byteranges responses stay with the default streaming copy.
+public class SendfileResourceRegionHttpMessageConverter extends ResourceRegionHttpMessageConverter {
+    @Override
+    protected void writeResourceRegion(ResourceRegion region, HttpOutputMessage outputMessage) throws IOException {
+        long start = region.getPosition();
+        long resourceLength = region.getResource().contentLength();
+        long end = Math.min(start + region.getCount() - 1, resourceLength - 1);
+        if (!Sendfile.serve(region.getResource(), start, end + 1)) {
+            super.writeResourceRegion(region, outputMessage);
+            return;
+        }
+
+        HttpHeaders headers = outputMessage.getHeaders();
+        headers.add(HttpHeaders.CONTENT_RANGE, "bytes " + start + '-' + end + '/' + resourceLength);
+        headers.setContentLength(end - start + 1);
+    }
+}
@@ -0,0 +1,46 @@
+package com.cognizant.practice.blog.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// Write against an outdated version of an entity. The current version goes back as the ETag,
+// the client reloads or merges and retries with it in If-Match.
+public class VersionConflictException extends ResponseStatusException {
+    private final long currentVersion;
+    private final String etag;
+
+    public VersionConflictException(HttpStatus status, String entity, long currentVersion) {
+        this(status, entity, currentVersion, ETags.ofVersion(currentVersion));
+    }
+
+    // etag is what a GET of the entity sends right now, when it covers more than the version
+    public VersionConflictException(HttpStatus status, String entity, long currentVersion, String etag) {
+        super(status, entity + " was changed by someone else, current version is " + currentVersion);
+        this.currentVersion = currentVersion;
+        this.etag = etag;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        return headers;
+    }
+
+    // 412 when the client edited an older version than the one just loaded, no expected version means any
+    public static void check(String entity, Long expectedVersion, Long currentVersion) {
+        long current = currentVersion == null ? 0 : currentVersion;
+        check(entity, expectedVersion, current, ETags.ofVersion(current));
+    }
+
+    public static void check(String entity, Long expectedVersion, long currentVersion, String etag) {
+        if (expectedVersion != null && expectedVersion != currentVersion) {
+            throw new VersionConflictException(HttpStatus.PRECONDITION_FAILED, entity, currentVersion, etag);
+        }
+    }
+}
@@ -1,47 +1,76 @@
 package com.cognizant.practice.blog.config;
 
+import com.cognizant.practice.blog.storage.service.BlobStore;
+import com.cognizant.practice.blog.storage.service.ImageVariantService;
+import jakarta.servlet.ServletContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.CorsRegistry;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
+    private final BlobStore blobStore;
+    private final ImageVariantService imageVariantService;
+
+    public WebConfig(BlobStore blobStore, ImageVariantService imageVariantService) {
+        this.blobStore = blobStore;
+        this.imageVariantService = imageVariantService;
+    }
+
+    // Uploaded media is served by MediaResourceHttpRequestHandler instead of registry resource handlers, those can't
+    // vary Cache-Control per file or swap in the sendfile converters. Ordered before Spring's own resource mapping.
+    @Bean
+    public SimpleUrlHandlerMapping mediaHandlerMapping(ApplicationContext applicationContext, ServletContext servletContext) throws Exception {
+        Map<String, ResourceHttpRequestHandler> handlers = new LinkedHashMap<>();
 
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // Serve profile pictures
-        registry.addResourceHandler("/profile-pictures/**")
-                .addResourceLocations("file:uploads/profile-pictures/");
-        
+        handlers.put("/profile-pictures/**", mediaHandler("file:uploads/profile-pictures/", false, new BlobResourceResolver(blobStore), applicationContext, servletContext));
+
         // Serve media files
-        registry.addResourceHandler("/article-media/**")
-                .addResourceLocations("file:uploads/article-media/");
-        
+        handlers.put("/article-media/**", mediaHandler("file:uploads/article-media/", false, new BlobResourceResolver(blobStore), applicationContext, servletContext));
+
         // Serve article cover images
-        registry.addResourceHandler("/article-images/**")
-                .addResourceLocations("file:uploads/article-images/");
-    }
+        handlers.put("/article-images/**", mediaHandler("file:uploads/article-images/", false, new BlobResourceResolver(blobStore), applicationContext, servletContext));
+
+        // Serve cropped and resized covers and avatars
+        handlers.put("/image-variants/**", mediaHandler("file:uploads/image-variants/", true, new ImageVariantResourceResolver(imageVariantService), applicationContext, servletContext));
 
-    @Override
-    public void addCorsMappings(CorsRegistry registry) {
         // Allow frontend to access images for canvas operations
-        registry.addMapping("/article-images/**")
-                .allowedOrigins("http://localhost:1234", "http://localhost:3000")
-                .allowedMethods("GET")
-                .allowedHeaders("*")
-                .allowCredentials(false);
-        
-        registry.addMapping("/profile-pictures/**")
-                .allowedOrigins("http://localhost:1234", "http://localhost:3000")
-                .allowedMethods("GET")
-                .allowedHeaders("*")
-                .allowCredentials(false);
-                
-        registry.addMapping("/article-media/**")
-                .allowedOrigins("http://localhost:1234", "http://localhost:3000")
-                .allowedMethods("GET")
-                .allowedHeaders("*")
-                .allowCredentials(false);
+        CorsConfiguration cors = new CorsConfiguration();
+        cors.setAllowedOrigins(List.of("http://localhost:1234", "http://localhost:3000"));
+        cors.setAllowedMethods(List.of("GET"));
+        cors.addAllowedHeader("*");
+        cors.setAllowCredentials(false);
+
+        Map<String, CorsConfiguration> corsConfigurations = new LinkedHashMap<>();
+        handlers.keySet().forEach(pattern -> corsConfigurations.put(pattern, cors));
+
+        SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping(handlers, Ordered.LOWEST_PRECEDENCE - 2);
+        mapping.setCorsConfigurations(corsConfigurations);
+        return mapping;
+    }
+
+    // Precompressed .br / .gz siblings are picked when the client accepts them, then the upload resolver, then the directory
+    private static ResourceHttpRequestHandler mediaHandler(String location, boolean fingerprintedLocation, ResourceResolver resolver,
+                                                           ApplicationContext applicationContext, ServletContext servletContext) throws Exception {
+        MediaResourceHttpRequestHandler handler = new MediaResourceHttpRequestHandler(fingerprintedLocation);
+        handler.setLocationValues(List.of(location));
+        handler.setResourceResolvers(List.of(new EncodedResourceResolver(), resolver, new PathResourceResolver()));
+        handler.setApplicationContext(applicationContext);
+        handler.setServletContext(servletContext);
+        handler.afterPropertiesSet();
+        return handler;
     }
-}
\ No newline at end of file
+}
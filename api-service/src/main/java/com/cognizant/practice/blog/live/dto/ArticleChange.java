@@ -0,0 +1,14 @@
+package com.cognizant.practice.blog.live.dto;
+
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Payload of the article events, enough to update a listing, the full article is one GET /articles/{id} away
+public record ArticleChange(UUID id, String title, String category, String authorUsername, LocalDateTime updatedDate, Long version) {
+    public static ArticleChange of(ArticleEntity article) {
+        return new ArticleChange(article.getId(), article.getTitle(), article.getCategory(),
+                article.getAuthor() == null ? null : article.getAuthor().getUsername(), article.getUpdatedDate(), article.getVersion());
+    }
+}
@@ -0,0 +1,7 @@
+package com.cognizant.practice.blog.live.dto;
+
+import java.util.UUID;
+
+// Payload of the delete events
+public record Removal(UUID id) {
+}
@@ -0,0 +1,286 @@
+package com.cognizant.practice.blog.live.service;
+
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.comment.dto.Comment;
+import com.cognizant.practice.blog.live.dto.ArticleChange;
+import com.cognizant.practice.blog.live.dto.Removal;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Server-Sent Events fan-out for the article feed and the comments of single articles. An idle subscriber is an
+// async request plus a few small objects, it holds no thread. Every event is serialized once and queued on each
+// subscriber, a virtual thread drains a queue only while it has events, so a slow client never blocks the writer.
+// A subscriber whose queue fills up is disconnected, EventSource reconnects by itself and the client reloads.
+@Service
+public class LiveUpdateService {
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateService.class);
+
+    public static final String ARTICLE_CREATED = "article-created";
+    public static final String ARTICLE_UPDATED = "article-updated";
+    public static final String ARTICLE_DELETED = "article-deleted";
+    public static final String COMMENT_CREATED = "comment-created";
+    public static final String COMMENT_EDITED = "comment-edited";
+    public static final String COMMENT_DELETED = "comment-deleted";
+
+    // Queued after the last event of a subscriber that is being closed
+    private static final Set<DataWithMediaType> END = Set.of();
+
+    private final ObjectMapper objectMapper;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Subscriber> feed = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Set<Subscriber>> articles = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final Counter slowDisconnects;
+
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final int maxSubscribers;
+
+    public LiveUpdateService(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${blog.live.buffer-size}") int bufferSize,
+                             @Value("${blog.live.timeout-ms}") long timeoutMs,
+                             @Value("${blog.live.max-subscribers}") int maxSubscribers) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = maxSubscribers;
+
+        meterRegistry.gauge("blog.live.subscribers", subscriberCount);
+        this.slowDisconnects = meterRegistry.counter("blog.live.slow-disconnects");
+    }
+
+    // Article created, updated and deleted events of every article
+    public SseEmitter subscribeFeed() {
+        return subscribe(null);
+    }
+
+    // Comment events of one article, plus its own update and delete events. The stream ends after the delete.
+    public SseEmitter subscribeArticle(UUID articleId) {
+        return subscribe(articleId);
+    }
+
+    public void articleCreated(ArticleEntity article) {
+        publish(ARTICLE_CREATED, ArticleChange.of(article), feed, null);
+    }
+
+    public void articleUpdated(ArticleEntity article) {
+        publish(ARTICLE_UPDATED, ArticleChange.of(article), feed, articles.get(article.getId()));
+    }
+
+    public void articleDeleted(UUID articleId) {
+        Set<Subscriber> subscribers = articles.get(articleId);
+        publish(ARTICLE_DELETED, new Removal(articleId), feed, subscribers);
+        if (subscribers != null) {
+            subscribers.forEach(Subscriber::close);
+        }
+    }
+
+    public void commentCreated(UUID articleId, Comment comment) {
+        publish(COMMENT_CREATED, comment, articles.get(articleId), null);
+    }
+
+    public void commentEdited(UUID articleId, Comment comment) {
+        publish(COMMENT_EDITED, comment, articles.get(articleId), null);
+    }
+
+    public void commentDeleted(UUID articleId, UUID commentId) {
+        publish(COMMENT_DELETED, new Removal(commentId), articles.get(articleId), null);
+    }
+
+    // Keeps proxies from closing quiet connections and finds clients that went away without a word
+    @Scheduled(fixedDelayString = "${blog.live.heartbeat-interval-ms}", initialDelayString = "${blog.live.heartbeat-interval-ms}")
+    public void heartbeat() {
+        Set<DataWithMediaType> event = SseEmitter.event().comment("heartbeat").build();
+        feed.forEach(subscriber -> subscriber.offer(event));
+        articles.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.offer(event)));
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        feed.forEach(Subscriber::close);
+        articles.values().forEach(subscribers -> subscribers.forEach(Subscriber::close));
+        senders.shutdown();
+        senders.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private SseEmitter subscribe(UUID articleId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live subscribers");
+        }
+
+        SseEmitter emitter = newEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(articleId, emitter);
+        emitter.onCompletion(subscriber::remove);
+        emitter.onError(e -> subscriber.remove());
+        emitter.onTimeout(() -> {
+            subscriber.remove();
+            emitter.complete();
+        });
+
+        if (articleId == null) {
+            feed.add(subscriber);
+        } else {
+            articles.compute(articleId, (id, subscribers) -> {
+                Set<Subscriber> topic = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+                topic.add(subscriber);
+                return topic;
+            });
+        }
+
+        return emitter;
+    }
+
+    // Tests replace the emitter with one that needs no servlet container
+    SseEmitter newEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    // Serialized once, the same frames are written to every subscriber
+    private void publish(String name, Object data, Set<Subscriber> first, Set<Subscriber> second) {
+        if ((first == null || first.isEmpty()) && (second == null || second.isEmpty())) {
+            return;
+        }
+
+        Set<DataWithMediaType> event;
+        try {
+            event = SseEmitter.event()
+                    .id(Long.toString(eventIds.incrementAndGet()))
+                    .name(name)
+                    .data(objectMapper.writeValueAsString(data))
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize live event {}", name, e);
+            return;
+        }
+
+        if (first != null) {
+            first.forEach(subscriber -> subscriber.offer(event));
+        }
+        if (second != null) {
+            second.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    private final class Subscriber {
+        private final UUID articleId;
+        private final SseEmitter emitter;
+        private final Queue<Set<DataWithMediaType>> queue = new ConcurrentLinkedQueue<>();
+        // The queue size, ConcurrentLinkedQueue.size() walks the whole queue
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        Subscriber(UUID articleId, SseEmitter emitter) {
+            this.articleId = articleId;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> event) {
+            if (removed.get()) {
+                return;
+            }
+            if (queued.incrementAndGet() > bufferSize) {
+                slowDisconnects.increment();
+                remove();
+                // complete() waits for a send that is stuck on the socket, that must not be the publishing thread
+                execute(emitter::complete);
+                return;
+            }
+
+            queue.add(event);
+            if (draining.compareAndSet(false, true)) {
+                execute(this::drain);
+            }
+        }
+
+        // Lets the queued events go out first, then ends the stream
+        void close() {
+            if (removed.get()) {
+                return;
+            }
+
+            queue.add(END);
+            if (draining.compareAndSet(false, true)) {
+                execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Set<DataWithMediaType> event;
+                while ((event = queue.poll()) != null) {
+                    if (event == END) {
+                        remove();
+                        emitter.complete();
+                        return;
+                    }
+
+                    queued.decrementAndGet();
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // Client is gone, the container reports it to the emitter as well
+                        remove();
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void execute(Runnable task) {
+            try {
+                senders.execute(task);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                draining.set(false);
+            }
+        }
+
+        void remove() {
+            if (!removed.compareAndSet(false, true)) {
+                return;
+            }
+
+            subscriberCount.decrementAndGet();
+            queue.clear();
+            if (articleId == null) {
+                feed.remove(this);
+            } else {
+                articles.computeIfPresent(articleId, (id, subscribers) -> {
+                    subscribers.remove(this);
+                    return subscribers.isEmpty() ? null : subscribers;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.cognizant.practice.blog.search.controller;
+
+import com.cognizant.practice.blog.search.dto.ArticleSearchResult;
+import com.cognizant.practice.blog.search.service.ArticleSearchService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class SearchController {
+    private final ArticleSearchService articleSearchService;
+
+    public SearchController(ArticleSearchService articleSearchService) {
+        this.articleSearchService = articleSearchService;
+    }
+
+    // GET /articles/search?q= -> ranked, highlighted hits served from the search index only
+    @GetMapping(value="/articles/search")
+    public ArticleSearchResult searchArticles(@RequestParam String q, @RequestParam(defaultValue = "10") int size,
+                                              @RequestParam(defaultValue = "0") int from) {
+        return articleSearchService.search(q, size, from);
+    }
+
+    // POST /articles/search/rebuild -> reindex every article from the database, runs in the background
+    @PostMapping(value="/articles/search/rebuild")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void rebuildIndex() {
+        articleSearchService.rebuild();
+    }
+}
@@ -0,0 +1,29 @@
+package com.cognizant.practice.blog.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ArticleSearchHit {
+    private UUID id;
+
+    private String title;
+    private String summary;
+    private String category;
+    private String authorUsername;
+    private String imageUrl;
+    private LocalDateTime createdDate;
+
+    private float score;
+    // Matched terms wrapped in <b></b>
+    private String titleHighlight;
+    private String contentHighlight;
+}
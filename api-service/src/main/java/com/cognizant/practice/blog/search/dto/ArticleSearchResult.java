@@ -0,0 +1,17 @@
+package com.cognizant.practice.blog.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ArticleSearchResult {
+    private List<ArticleSearchHit> hits;
+    private long totalHits;
+}
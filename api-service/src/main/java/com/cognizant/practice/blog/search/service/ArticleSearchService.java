@@ -0,0 +1,378 @@
+package com.cognizant.practice.blog.search.service;
+
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.article.repository.ArticleRepository;
+import com.cognizant.practice.blog.config.BackgroundJobs;
+import com.cognizant.practice.blog.search.dto.ArticleSearchHit;
+import com.cognizant.practice.blog.search.dto.ArticleSearchResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Embedded Lucene index over articles, kept in sync by ArticlesService and searched without touching the database
+@Service
+public class ArticleSearchService {
+    private static final Logger log = LoggerFactory.getLogger(ArticleSearchService.class);
+
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String SUMMARY = "summary";
+    private static final String CATEGORY = "category";
+    private static final String AUTHOR = "author";
+    private static final String CONTENT = "content";
+    private static final String IMAGE_URL = "imageUrl";
+    private static final String CREATED_DATE = "createdDate";
+
+    private static final String[] SEARCH_FIELDS = {TITLE, SUMMARY, CATEGORY, AUTHOR, CONTENT};
+    private static final Map<String, Float> BOOSTS = Map.of(TITLE, 4f, CATEGORY, 2f, AUTHOR, 2f, SUMMARY, 1.5f, CONTENT, 1f);
+
+    private static final String REBUILD_JOB = "search index rebuild";
+
+    private final ArticleRepository articleRepository;
+    private final BackgroundJobs backgroundJobs;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String indexDir;
+    private final int rebuildBatchSize;
+
+    private FSDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    // Writes are visible to searches right away through a near-real-time reader, the fsync of a commit
+    // happens once per blog.search.commit-interval-ms for everything written since the last one
+    private final AtomicBoolean uncommitted = new AtomicBoolean();
+    // A rebuild starts from an empty index, searches keep the previous reader until it is done
+    private volatile boolean rebuilding;
+    // Authors renamed since their articles were last indexed, the pass runs while the set isn't empty
+    private final Set<UUID> renamedAuthors = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reindexingAuthors = new AtomicBoolean();
+
+    public ArticleSearchService(ArticleRepository articleRepository, BackgroundJobs backgroundJobs,
+                                @Value("${blog.search.index-dir}") String indexDir,
+                                @Value("${blog.search.rebuild-batch-size}") int rebuildBatchSize) {
+        this.articleRepository = articleRepository;
+        this.backgroundJobs = backgroundJobs;
+        this.indexDir = indexDir;
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexDir));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        commitChanges();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    // A fresh install (or a deleted index directory) gets populated from the database, in the background so
+    // startup doesn't wait for it. Searches come back empty until it is done.
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (writer.getDocStats().numDocs == 0) {
+            rebuild();
+        }
+    }
+
+    public void index(ArticleEntity article) {
+        try {
+            writer.updateDocument(new Term(ID, article.getId().toString()), toDocument(article));
+            changed();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index article " + article.getId(), e);
+        }
+    }
+
+    // Bulk variant for imports, one reader refresh for the whole batch instead of one per article
+    public void indexAll(Collection<ArticleEntity> articles) {
+        try {
+            for (ArticleEntity article : articles) {
+                writer.updateDocument(new Term(ID, article.getId().toString()), toDocument(article));
+            }
+            changed();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index " + articles.size() + " articles", e);
+        }
+    }
+
+    public void delete(UUID id) {
+        try {
+            writer.deleteDocuments(new Term(ID, id.toString()));
+            changed();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove article " + id + " from the index", e);
+        }
+    }
+
+    // The index stores the author username, so a renamed author's articles are indexed again off the request thread
+    public void authorRenamed(UUID authorId) {
+        renamedAuthors.add(authorId);
+        if (reindexingAuthors.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("search author reindex").start(this::reindexRenamedAuthors);
+        }
+    }
+
+    void reindexRenamedAuthors() {
+        do {
+            try {
+                for (UUID authorId : renamedAuthors) {
+                    renamedAuthors.remove(authorId);
+                    reindexAuthor(authorId);
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to reindex the articles of renamed authors", e);
+            } finally {
+                reindexingAuthors.set(false);
+            }
+        } while (!renamedAuthors.isEmpty() && reindexingAuthors.compareAndSet(false, true));
+    }
+
+    private void reindexAuthor(UUID authorId) {
+        UUID after = null;
+        List<ArticleEntity> batch;
+        do {
+            batch = articleRepository.findBatchByAuthorAfter(authorId, after, rebuildBatchSize);
+            if (!batch.isEmpty()) {
+                indexAll(batch);
+                after = batch.getLast().getId();
+            }
+        } while (batch.size() == rebuildBatchSize);
+    }
+
+    public void rebuild() {
+        backgroundJobs.start(REBUILD_JOB, this::reindexAll);
+    }
+
+    // Id ordered batches, each one seeks past the last id of the previous one. Articles written meanwhile go
+    // through updateDocument like the batch does, so they end up in the index once.
+    void reindexAll() {
+        rebuilding = true;
+        try {
+            writer.deleteAll();
+
+            long indexed = 0;
+            UUID after = null;
+            List<ArticleEntity> batch;
+            do {
+                batch = articleRepository.findBatchAfter(after, rebuildBatchSize);
+                for (ArticleEntity article : batch) {
+                    writer.updateDocument(new Term(ID, article.getId().toString()), toDocument(article));
+                }
+                indexed += batch.size();
+                if (!batch.isEmpty()) {
+                    after = batch.getLast().getId();
+                }
+            } while (batch.size() == rebuildBatchSize);
+
+            rebuilding = false;
+            writer.commit();
+            searcherManager.maybeRefresh();
+            log.info("Rebuilt search index with {} articles", indexed);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to rebuild the search index", e);
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${blog.search.commit-interval-ms}", initialDelayString = "${blog.search.commit-interval-ms}")
+    public void commitChanges() {
+        if (rebuilding || !uncommitted.getAndSet(false)) {
+            return;
+        }
+
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            uncommitted.set(true);
+            log.warn("Failed to commit the search index", e);
+        }
+    }
+
+    public ArticleSearchResult search(String q, int size, int from) {
+        if (q == null || q.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query can not be empty");
+        }
+        if (size < 1 || from < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page");
+        }
+
+        Query query = parse(q);
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs top = searcher.search(query, Math.multiplyExact(from + 1, size));
+
+            int start = Math.min(from * size, top.scoreDocs.length);
+            ScoreDoc[] pageDocs = Arrays.copyOfRange(top.scoreDocs, start, top.scoreDocs.length);
+            TopDocs page = new TopDocs(top.totalHits, pageDocs);
+
+            UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer).build();
+            Map<String, String[]> highlights = highlighter.highlightFields(new String[]{TITLE, CONTENT}, query, page, new int[]{1, 2});
+
+            StoredFields storedFields = searcher.storedFields();
+            List<ArticleSearchHit> hits = new ArrayList<>();
+            for (int i = 0; i < pageDocs.length; i++) {
+                Document document = storedFields.document(pageDocs[i].doc);
+                hits.add(ArticleSearchHit.builder()
+                        .id(UUID.fromString(document.get(ID)))
+                        .title(document.get(TITLE))
+                        .summary(document.get(SUMMARY))
+                        .category(document.get(CATEGORY))
+                        .authorUsername(document.get(AUTHOR))
+                        .imageUrl(document.get(IMAGE_URL))
+                        .createdDate(document.get(CREATED_DATE) == null ? null : LocalDateTime.parse(document.get(CREATED_DATE)))
+                        .score(pageDocs[i].score)
+                        .titleHighlight(highlights.get(TITLE)[i])
+                        .contentHighlight(highlights.get(CONTENT)[i])
+                        .build());
+            }
+
+            return ArticleSearchResult.builder().hits(hits).totalHits(top.totalHits.value).build();
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Search failed");
+        } finally {
+            if (searcher != null) {
+                release(searcher);
+            }
+        }
+    }
+
+    // Lexical stores content as a JSON tree, the searchable text lives in its "text" nodes
+    public String plainText(String content) {
+        if (content == null) {
+            return "";
+        }
+
+        try {
+            JsonNode root = objectMapper.readTree(content);
+            if (root != null && root.isContainerNode()) {
+                StringBuilder text = new StringBuilder();
+                collectText(root, text);
+                return text.toString().trim();
+            }
+        } catch (IOException e) {
+            // not JSON, fall through to HTML / plain text
+        }
+
+        return content.replaceAll("<[^>]*>", " ").replaceAll("\\s+", " ").trim();
+    }
+
+    private void collectText(JsonNode node, StringBuilder text) {
+        JsonNode value = node.get("text");
+        if (value != null && value.isTextual()) {
+            text.append(value.asText()).append(' ');
+        }
+        for (JsonNode child : node) {
+            if (child.isContainerNode()) {
+                collectText(child, text);
+            }
+        }
+    }
+
+    private Document toDocument(ArticleEntity article) {
+        Document document = new Document();
+        document.add(new StringField(ID, article.getId().toString(), Field.Store.YES));
+        document.add(new TextField(TITLE, nullToEmpty(article.getTitle()), Field.Store.YES));
+        document.add(new TextField(SUMMARY, plainText(article.getSummary()), Field.Store.YES));
+        document.add(new TextField(CATEGORY, nullToEmpty(article.getCategory()), Field.Store.YES));
+        document.add(new TextField(AUTHOR, article.getAuthor() == null ? "" : nullToEmpty(article.getAuthor().getUsername()), Field.Store.YES));
+        document.add(new TextField(CONTENT, plainText(article.getContent()), Field.Store.YES));
+        if (article.getImageUrl() != null) {
+            document.add(new StoredField(IMAGE_URL, article.getImageUrl()));
+        }
+        if (article.getCreatedDate() != null) {
+            document.add(new StoredField(CREATED_DATE, article.getCreatedDate().toString()));
+        }
+
+        return document;
+    }
+
+    private Query parse(String q) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(SEARCH_FIELDS, analyzer, BOOSTS);
+        try {
+            return parser.parse(q);
+        } catch (ParseException e) {
+            // Unbalanced quotes or stray operators: search for the words literally. Escaping covers the special
+            // characters, lower case covers AND / OR / NOT (the analyzer lower cases the terms anyway).
+            try {
+                return parser.parse(QueryParser.escape(q.toLowerCase(Locale.ROOT)));
+            } catch (ParseException escaped) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid search query");
+            }
+        }
+    }
+
+    private void changed() throws IOException {
+        uncommitted.set(true);
+        if (!rebuilding) {
+            searcherManager.maybeRefresh();
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.warn("Failed to release index searcher", e);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -35,14 +35,23 @@ public class SecurityConfiguration {
                         .requestMatchers(HttpMethod.DELETE, "/articles/*/comments/*").permitAll()
                         .requestMatchers(HttpMethod.GET, "/articles/*/comments").permitAll()
                         .requestMatchers(HttpMethod.POST, "/articles/*/comments").hasRole("USER")
+                        .requestMatchers(HttpMethod.POST, "/articles/search/rebuild").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/articles/export").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/articles/import").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/articles/images/rebuild").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/articles/summaries/rebuild").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/articles/**").hasRole("AUTHOR")
                         .requestMatchers(HttpMethod.PUT, "/articles/**").hasRole("AUTHOR")
+                        .requestMatchers(HttpMethod.PATCH, "/articles/**").hasRole("AUTHOR")
                         .requestMatchers(HttpMethod.POST, "/articles/**").hasRole("AUTHOR")
                         .requestMatchers(HttpMethod.POST, "/articles/**").hasRole("USER")
                         .requestMatchers(HttpMethod.PUT, "/users/*/role").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/users").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/comments", "/comments/*").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/users/*/upload-profile-picture").hasRole("USER")
 
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/media/**").permitAll()
                         .requestMatchers("/profile-pictures/**").permitAll()
                         .requestMatchers("/users/login", "/users/register").permitAll()
@@ -0,0 +1,23 @@
+package com.cognizant.practice.blog.storage.controller;
+
+import com.cognizant.practice.blog.storage.service.ImageVariantService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class ImageVariantController {
+    private final ImageVariantService imageVariantService;
+
+    public ImageVariantController(ImageVariantService imageVariantService) {
+        this.imageVariantService = imageVariantService;
+    }
+
+    // POST /articles/images/rebuild -> render the missing cover and avatar variants of every stored image, in the background
+    @PostMapping(value="/articles/images/rebuild")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void rebuildVariants() {
+        imageVariantService.rebuild();
+    }
+}
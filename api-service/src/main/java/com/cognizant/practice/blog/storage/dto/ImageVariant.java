@@ -0,0 +1,77 @@
+package com.cognizant.practice.blog.storage.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Resized copies of covers and avatars, served from /image-variants/<source>/<variant>-<crop key>.jpg.
+// The crop key changes with the crop, so a variant file is never rewritten and can be cached for good.
+public enum ImageVariant {
+    THUMBNAIL(320, false),
+    CARD(640, false),
+    HERO(1600, false),
+    AVATAR(256, true);
+
+    public static final String URL_PREFIX = "/image-variants/";
+    public static final Set<ImageVariant> COVER = EnumSet.of(THUMBNAIL, CARD, HERO);
+    public static final Set<ImageVariant> PROFILE = EnumSet.of(AVATAR);
+
+    private final int width;
+    private final boolean square;
+
+    ImageVariant(int width, boolean square) {
+        this.width = width;
+        this.square = square;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public boolean isSquare() {
+        return square;
+    }
+
+    public String path(String source, Double cropX, Double cropY, Double cropWidth, Double cropHeight) {
+        return path(source, cropKey(cropX, cropY, cropWidth, cropHeight));
+    }
+
+    private String path(String source, String cropKey) {
+        return source + "/" + name().toLowerCase(Locale.ROOT) + "-" + cropKey + ".jpg";
+    }
+
+    // variant name -> url, empty without a source image
+    public static Map<String, String> urls(Set<ImageVariant> variants, String source, Double cropX, Double cropY, Double cropWidth, Double cropHeight) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        if (source == null || source.isEmpty()) {
+            return urls;
+        }
+
+        String cropKey = cropKey(cropX, cropY, cropWidth, cropHeight);
+        for (ImageVariant variant : variants) {
+            urls.put(variant.name().toLowerCase(Locale.ROOT), URL_PREFIX + variant.path(source, cropKey));
+        }
+        return urls;
+    }
+
+    // cropScale is left out, the crop rectangle alone decides what gets rendered
+    private static String cropKey(Double cropX, Double cropY, Double cropWidth, Double cropHeight) {
+        if (cropX == null || cropY == null || cropWidth == null || cropHeight == null) {
+            return "full";
+        }
+
+        String crop = String.format(Locale.ROOT, "%.4f,%.4f,%.4f,%.4f", cropX, cropY, cropWidth, cropHeight);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(crop.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
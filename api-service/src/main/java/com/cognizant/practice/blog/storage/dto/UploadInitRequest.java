@@ -0,0 +1,5 @@
+package com.cognizant.practice.blog.storage.dto;
+
+// sha256 (hex) of the whole file is optional, when given the completed upload is checked against it
+public record UploadInitRequest(String fileName, Long size, String sha256) {
+}
@@ -0,0 +1,27 @@
+package com.cognizant.practice.blog.storage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+// State of a resumable upload. Chunks are chunkSize bytes (the last one may be shorter) and are sent
+// with PUT ?offset=<index * chunkSize>, a client that lost its connection resends the missing ones.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UploadSession {
+    private UUID id;
+
+    private String fileName;
+    private long size;
+    private long chunkSize;
+
+    private long receivedBytes;
+    private List<Long> missingOffsets;
+    private boolean complete;
+}
@@ -0,0 +1,29 @@
+package com.cognizant.practice.blog.storage.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One stored upload, named by the SHA-256 of its content. referenceCount is the number of
+// imageUrl, mediaUrls and profilePicture values that point at it.
+@Entity
+@Table(name = "BLOBS")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BlobEntity {
+    @Id
+    private String hash;
+
+    private long size;
+    private long referenceCount;
+
+    private LocalDateTime createdDate;
+}
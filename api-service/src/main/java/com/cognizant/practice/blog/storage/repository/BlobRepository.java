@@ -0,0 +1,27 @@
+package com.cognizant.practice.blog.storage.repository;
+
+import com.cognizant.practice.blog.storage.entity.BlobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface BlobRepository extends JpaRepository<BlobEntity, String> {
+    // Counts are changed in place so concurrent references never overwrite each other
+    @Transactional
+    @Modifying
+    @Query("update BlobEntity b set b.referenceCount = b.referenceCount + 1 where b.hash = :hash")
+    int retain(String hash);
+
+    @Transactional
+    @Modifying
+    @Query("update BlobEntity b set b.referenceCount = b.referenceCount - 1 where b.hash = :hash and b.referenceCount > 0")
+    int release(String hash);
+
+    @Transactional
+    @Modifying
+    @Query("delete from BlobEntity b where b.hash = :hash and b.referenceCount = 0")
+    int deleteIfUnreferenced(String hash);
+}
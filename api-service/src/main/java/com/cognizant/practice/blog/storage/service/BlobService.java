@@ -0,0 +1,171 @@
+package com.cognizant.practice.blog.storage.service;
+
+import com.cognizant.practice.blog.storage.entity.BlobEntity;
+import com.cognizant.practice.blog.storage.repository.BlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Content-addressed, reference counted uploads. The stored names (imageUrl, mediaUrls, profilePicture) are
+// <sha-256><extension>, so the hash is read straight off the name. Names that don't have that shape are
+// files from before the blob store and still live in the flat upload directories.
+@Service
+public class BlobService {
+    private static final Logger log = LoggerFactory.getLogger(BlobService.class);
+
+    private static final Pattern BLOB_NAME = Pattern.compile("([0-9a-f]{64})(\\.[A-Za-z0-9]+)?");
+    private static final Pattern EXTENSION = Pattern.compile("\\.[A-Za-z0-9]+");
+    // Text formats that shrink well, images and video are already compressed
+    private static final Set<String> COMPRESSIBLE = Set.of(".svg", ".txt", ".md", ".csv", ".json", ".xml", ".html");
+    private static final int LOCK_STRIPES = 64;
+
+    private final BlobStore blobStore;
+    private final BlobRepository blobRepository;
+    private final UploadStorageService uploadStorageService;
+    private final ImageVariantService imageVariantService;
+
+    // Store and release of the same hash are serialized, so a blob can't be deleted while it gets a new reference
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public BlobService(BlobStore blobStore, BlobRepository blobRepository, UploadStorageService uploadStorageService,
+                       ImageVariantService imageVariantService) {
+        this.blobStore = blobStore;
+        this.blobRepository = blobRepository;
+        this.uploadStorageService = uploadStorageService;
+        this.imageVariantService = imageVariantService;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public static String hashOf(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+
+        Matcher matcher = BLOB_NAME.matcher(fileName);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    // Returns the name to save on the entity, which holds one reference to the blob.
+    // Content that is already stored costs the hash and nothing else, the received file is dropped.
+    public String store(MultipartFile file, String extension) throws IOException {
+        return store(uploadStorageService.receive(file), extension);
+    }
+
+    // Same as above for a file that already sits in the incoming directory, it is moved into the store or deleted
+    public String store(Path received, String extension) throws IOException {
+        try {
+            String hash = sha256(received);
+            long size = Files.size(received);
+
+            String fileName = hash + (extension != null && EXTENSION.matcher(extension).matches() ? extension : "");
+
+            ReentrantLock lock = lockFor(hash);
+            lock.lock();
+            try {
+                if (blobRepository.retain(hash) == 0) {
+                    blobStore.put(hash, received);
+                    blobRepository.save(new BlobEntity(hash, size, 1, LocalDateTime.now()));
+                } else if (!blobStore.contains(hash)) {
+                    // Row without content, e.g. the backend was wiped, this upload restores it
+                    blobStore.put(hash, received);
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (fileName.length() > hash.length() && COMPRESSIBLE.contains(fileName.substring(hash.length()).toLowerCase(Locale.ROOT))) {
+                uploadStorageService.afterStore("precompress " + fileName, () -> {
+                    try {
+                        blobStore.precompress(hash, fileName);
+                    } catch (IOException e) {
+                        log.warn("Failed to precompress blob {}", fileName, e);
+                    }
+                });
+            }
+
+            return fileName;
+        } finally {
+            Files.deleteIfExists(received);
+        }
+    }
+
+    // For names copied from one entity to another, nothing happens for legacy names or unknown hashes
+    public void retain(String fileName) {
+        String hash = hashOf(fileName);
+        if (hash != null) {
+            blobRepository.retain(hash);
+        }
+    }
+
+    // Drops one reference and deletes the content with the last one. Legacy files have a single owner
+    // and are removed from their upload directory.
+    public void release(String area, String fileName) {
+        if (fileName == null || fileName.isEmpty()) {
+            return;
+        }
+
+        String hash = hashOf(fileName);
+        if (hash == null) {
+            uploadStorageService.removeLegacy(area, fileName);
+            imageVariantService.removeVariants(fileName);
+            return;
+        }
+
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            blobRepository.release(hash);
+            if (blobRepository.deleteIfUnreferenced(hash) > 0) {
+                blobStore.delete(hash);
+                imageVariantService.removeVariants(hash);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete blob {}", hash, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(String hash) {
+        return locks[Integer.parseInt(hash.substring(0, 2), 16) % LOCK_STRIPES];
+    }
+
+    static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
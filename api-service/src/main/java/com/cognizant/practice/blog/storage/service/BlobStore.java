@@ -0,0 +1,25 @@
+package com.cognizant.practice.blog.storage.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+// Where blob content lives. Blobs are immutable, a hash is written once and only ever deleted.
+// The backend is picked with blog.blobs.backend (local or memory).
+public interface BlobStore {
+    boolean contains(String hash);
+
+    // Takes ownership of the file, after this call it has been moved into the store or deleted
+    void put(String hash, Path content) throws IOException;
+
+    // fileName is what the resource reports as its name, so the served content type follows the requested extension
+    Optional<Resource> get(String hash, String fileName);
+
+    // Writes a gzip copy next to the blob for clients that accept it, backends that serve from memory skip it
+    default void precompress(String hash, String fileName) throws IOException {
+    }
+
+    void delete(String hash) throws IOException;
+}
@@ -0,0 +1,257 @@
+package com.cognizant.practice.blog.storage.service;
+
+import com.cognizant.practice.blog.storage.dto.UploadInitRequest;
+import com.cognizant.practice.blog.storage.dto.UploadSession;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+// Resumable uploads for files too large for one multipart request. The target file is allocated at its full size
+// when the upload starts and every chunk is written straight to its offset through a FileChannel, so memory use
+// doesn't depend on the file size. Sessions live in memory and expire (with their file) when left idle.
+@Service
+public class ChunkedUploadService {
+    private static final Logger log = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UploadStorageService uploadStorageService;
+    private final BlobService blobService;
+    private final Cache<UUID, Session> sessions;
+
+    @Value("${blog.upload.chunked.chunk-size}")
+    private long chunkSize;
+
+    @Value("${blog.upload.chunked.max-size}")
+    private long maxSize;
+
+    public ChunkedUploadService(UploadStorageService uploadStorageService, BlobService blobService,
+                                @Value("${blog.upload.chunked.idle-minutes}") long idleMinutes) {
+        this.uploadStorageService = uploadStorageService;
+        this.blobService = blobService;
+        this.sessions = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .scheduler(Scheduler.systemScheduler())
+                .removalListener((UUID id, Session session, RemovalCause cause) -> {
+                    if (session != null) {
+                        discard(session);
+                    }
+                })
+                .build();
+    }
+
+    public UploadSession start(UUID ownerId, String username, UploadInitRequest request) {
+        if (request.fileName() == null || request.fileName().isEmpty() || request.size() == null || request.size() <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File name and size are required");
+        }
+        if (request.size() > maxSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "File is larger than " + maxSize + " bytes");
+        }
+
+        UUID id = UUID.randomUUID();
+        Path path = uploadStorageService.resolve(UploadStorageService.INCOMING, id + ".upload");
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(request.size());
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to start upload");
+        }
+
+        int chunks = Math.toIntExact((request.size() + chunkSize - 1) / chunkSize);
+        Session session = new Session(id, ownerId, username, request.fileName(), request.size(), chunkSize, chunks,
+                request.sha256() == null ? null : request.sha256().toLowerCase(), path, new BitSet(chunks), new BitSet(chunks));
+        sessions.put(id, session);
+
+        return session.toDto();
+    }
+
+    public UploadSession status(UUID id, UUID ownerId, String username) {
+        return get(id, ownerId, username).toDto();
+    }
+
+    // sha256 is the hex digest of this chunk's bytes, a chunk that doesn't match is not counted as received.
+    // A chunk being written is neither received nor writable by a second request, and the upload can't complete.
+    public UploadSession writeChunk(UUID id, UUID ownerId, String username, long offset, String sha256, InputStream body) {
+        Session session = get(id, ownerId, username);
+        if (offset < 0 || offset >= session.size() || offset % session.chunkSize() != 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Offset must be a multiple of " + session.chunkSize() + " inside the file");
+        }
+        if (sha256 == null || sha256.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk checksum is required");
+        }
+
+        int chunk = Math.toIntExact(offset / session.chunkSize());
+        synchronized (session) {
+            if (sessions.getIfPresent(id) != session) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found");
+            }
+            if (session.writing().get(chunk)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Chunk at " + offset + " is already being written");
+            }
+            session.writing().set(chunk);
+            session.received().clear(chunk);
+        }
+
+        boolean verified = false;
+        try {
+            write(session, offset, sha256, body);
+            verified = true;
+        } finally {
+            synchronized (session) {
+                session.writing().clear(chunk);
+                if (verified) {
+                    session.received().set(chunk);
+                }
+            }
+        }
+        return session.toDto();
+    }
+
+    // Throws when the body has the wrong length, can't be written or doesn't match the checksum
+    private void write(Session session, long offset, String sha256, InputStream body) {
+        long end = Math.min(offset + session.chunkSize(), session.size());
+        MessageDigest digest = sha256();
+        try (ReadableByteChannel in = Channels.newChannel(body);
+             FileChannel out = FileChannel.open(session.path(), StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            long position = offset;
+            while (position < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(BUFFER_SIZE, end - position));
+                if (in.read(buffer) == -1) {
+                    break;
+                }
+
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    position += out.write(buffer, position);
+                }
+            }
+
+            if (position < end) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk is shorter than " + (end - offset) + " bytes");
+            }
+            buffer.clear().limit(1);
+            if (in.read(buffer) > 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk is longer than " + (end - offset) + " bytes");
+            }
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to write chunk");
+        }
+
+        if (!HexFormat.of().formatHex(digest.digest()).equalsIgnoreCase(sha256)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Chunk checksum does not match");
+        }
+    }
+
+    // Moves the finished file into the blob store and ends the session, returns the stored name
+    public String complete(UUID id, UUID ownerId, String username) throws IOException {
+        Session session = get(id, ownerId, username);
+        // Held for the whole completion, a second complete of the same upload finds the session gone
+        synchronized (session) {
+            if (sessions.getIfPresent(id) != session) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found");
+            }
+            if (!session.writing().isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload has chunks being written");
+            }
+            if (session.received().cardinality() < session.chunks()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is missing chunks");
+            }
+            if (session.sha256() != null && !session.sha256().equals(BlobService.sha256(session.path()))) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "File checksum does not match");
+            }
+
+            String fileName = session.fileName();
+            int dot = fileName.lastIndexOf(".");
+            String stored = blobService.store(session.path(), dot < 0 ? "" : fileName.substring(dot));
+            sessions.invalidate(id);
+            return stored;
+        }
+    }
+
+    public void cancel(UUID id, UUID ownerId, String username) {
+        get(id, ownerId, username);
+        sessions.invalidate(id);
+    }
+
+    // Sessions of other users or other articles look the same as missing ones
+    private Session get(UUID id, UUID ownerId, String username) {
+        Session session = sessions.getIfPresent(id);
+        if (session == null || !session.ownerId().equals(ownerId) || !session.username().equals(username)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found");
+        }
+
+        return session;
+    }
+
+    private void discard(Session session) {
+        try {
+            Files.deleteIfExists(session.path());
+        } catch (IOException e) {
+            log.warn("Failed to remove upload {}", session.path(), e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Session(UUID id, UUID ownerId, String username, String fileName, long size, long chunkSize, int chunks,
+                           String sha256, Path path, BitSet received, BitSet writing) {
+        UploadSession toDto() {
+            List<Long> missing = new ArrayList<>();
+            long receivedBytes = 0;
+            synchronized (this) {
+                for (int i = 0; i < chunks; i++) {
+                    long offset = i * chunkSize;
+                    if (received.get(i)) {
+                        receivedBytes += Math.min(chunkSize, size - offset);
+                    } else {
+                        missing.add(offset);
+                    }
+                }
+            }
+
+            return UploadSession.builder()
+                    .id(id)
+                    .fileName(fileName)
+                    .size(size)
+                    .chunkSize(chunkSize)
+                    .receivedBytes(receivedBytes)
+                    .missingOffsets(missing)
+                    .complete(missing.isEmpty())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.cognizant.practice.blog.storage.service;
+
+import com.cognizant.practice.blog.article.dto.ArticleSummary;
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.article.repository.ArticleRepository;
+import com.cognizant.practice.blog.config.BackgroundJobs;
+import com.cognizant.practice.blog.storage.dto.ImageVariant;
+import com.cognizant.practice.blog.user.entity.UserEntity;
+import com.cognizant.practice.blog.user.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Renders the cropped, resized variants of covers and avatars on the upload post-processing pool.
+// Until a variant exists its url serves the original image (see ImageVariantResourceResolver).
+@Service
+public class ImageVariantService {
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final BlobStore blobStore;
+    private final UploadStorageService uploadStorageService;
+    private final ArticleRepository articleRepository;
+    private final UserRepository userRepository;
+    private final BackgroundJobs backgroundJobs;
+
+    @Value("${blog.image-variants.rebuild-batch-size}")
+    private int rebuildBatchSize;
+
+    @Value("${blog.image-variants.max-decoded-pixels}")
+    private long maxDecodedPixels;
+
+    public ImageVariantService(BlobStore blobStore, UploadStorageService uploadStorageService, ArticleRepository articleRepository,
+                               UserRepository userRepository, BackgroundJobs backgroundJobs) {
+        this.blobStore = blobStore;
+        this.uploadStorageService = uploadStorageService;
+        this.articleRepository = articleRepository;
+        this.userRepository = userRepository;
+        this.backgroundJobs = backgroundJobs;
+    }
+
+    public void renderCover(String imageUrl, Double cropX, Double cropY, Double cropWidth, Double cropHeight) {
+        render(UploadStorageService.ARTICLE_IMAGES, imageUrl, ImageVariant.COVER, cropX, cropY, cropWidth, cropHeight);
+    }
+
+    public void renderAvatar(String profilePicture) {
+        render(UploadStorageService.PROFILE_PICTURES, profilePicture, ImageVariant.PROFILE, null, null, null, null);
+    }
+
+    // Renders whatever is missing for every cover and avatar, for images uploaded before variants existed.
+    // One image at a time on the job's own thread, queueing every image at once would overflow the post-processing pool.
+    public void rebuild() {
+        backgroundJobs.start("image variant rebuild", this::renderMissing);
+    }
+
+    void renderMissing() {
+        UUID after = null;
+        List<ArticleSummary> articles;
+        do {
+            UUID last = after;
+            Specification<ArticleEntity> withImage = (root, query, cb) -> last == null
+                    ? cb.isNotNull(root.get("imageUrl"))
+                    : cb.and(cb.isNotNull(root.get("imageUrl")), cb.greaterThan(root.<UUID>get("id"), last));
+            articles = articleRepository.findSummaries(withImage, Sort.by("id"), 0, rebuildBatchSize);
+            for (ArticleSummary article : articles) {
+                rebuildOne(UploadStorageService.ARTICLE_IMAGES, article.getImageUrl(), ImageVariant.COVER,
+                        article.getCropX(), article.getCropY(), article.getCropWidth(), article.getCropHeight());
+                after = article.getId();
+            }
+        } while (articles.size() == rebuildBatchSize);
+
+        after = null;
+        List<UserEntity> users;
+        do {
+            users = userRepository.findWithProfilePictureAfter(after, rebuildBatchSize);
+            for (UserEntity user : users) {
+                rebuildOne(UploadStorageService.PROFILE_PICTURES, user.getProfilePicture(), ImageVariant.PROFILE, null, null, null, null);
+                after = user.getId();
+            }
+        } while (users.size() == rebuildBatchSize);
+    }
+
+    private void rebuildOne(String area, String source, Set<ImageVariant> variants, Double cropX, Double cropY, Double cropWidth, Double cropHeight) {
+        if (!isRenderable(source)) {
+            return;
+        }
+
+        try {
+            renderNow(area, source, variants, cropX, cropY, cropWidth, cropHeight);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to render variants of {}/{}", area, source, e);
+        }
+    }
+
+    // The source is served in place of a variant that hasn't been rendered yet
+    public Optional<Resource> source(String area, String fileName) {
+        String hash = BlobService.hashOf(fileName);
+        if (hash != null) {
+            return blobStore.get(hash, fileName);
+        }
+
+        Path legacy = uploadStorageService.resolve(area, fileName).normalize();
+        if (!legacy.startsWith(uploadStorageService.resolve(area, "")) || !Files.isRegularFile(legacy)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FileSystemResource(legacy));
+    }
+
+    // Drops the variants of every name that starts with the prefix, a blob hash covers all its extensions
+    public void removeVariants(String prefix) {
+        Path root = uploadStorageService.resolve(UploadStorageService.IMAGE_VARIANTS, "");
+        uploadStorageService.afterStore("remove variants of " + prefix, () -> {
+            try (DirectoryStream<Path> sources = Files.newDirectoryStream(root, path -> path.getFileName().toString().startsWith(prefix))) {
+                for (Path source : sources) {
+                    try (Stream<Path> files = Files.walk(source)) {
+                        for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                            Files.deleteIfExists(file);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Failed to remove image variants of {}", prefix, e);
+            }
+        });
+    }
+
+    private void render(String area, String source, Set<ImageVariant> variants, Double cropX, Double cropY, Double cropWidth, Double cropHeight) {
+        if (!isRenderable(source)) {
+            return;
+        }
+
+        uploadStorageService.afterStore("render variants of " + area + "/" + source, () -> {
+            try {
+                renderNow(area, source, variants, cropX, cropY, cropWidth, cropHeight);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // profilePicture can be set by the client, only plain file names are rendered
+    private static boolean isRenderable(String source) {
+        return source != null && !source.isEmpty() && !source.startsWith(".") && !source.contains("/") && !source.contains("\\");
+    }
+
+    private void renderNow(String area, String source, Set<ImageVariant> variants, Double cropX, Double cropY, Double cropWidth, Double cropHeight) throws IOException {
+        List<ImageVariant> missing = variants.stream()
+                .filter(variant -> !Files.exists(variantPath(source, variant, cropX, cropY, cropWidth, cropHeight)))
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Optional<Resource> resource = source(area, source);
+        if (resource.isEmpty()) {
+            return;
+        }
+
+        BufferedImage cropped;
+        try (InputStream in = resource.get().getInputStream()) {
+            cropped = decode(in, source, missing, cropX, cropY, cropWidth, cropHeight);
+        }
+        if (cropped == null) {
+            // Not decodable or too large, the original keeps being served
+            return;
+        }
+
+        for (ImageVariant variant : missing) {
+            BufferedImage image = variant.isSquare() ? centerSquare(cropped) : cropped;
+            write(resize(image, variant.getWidth()), variantPath(source, variant, cropX, cropY, cropWidth, cropHeight));
+        }
+    }
+
+    private Path variantPath(String source, ImageVariant variant, Double cropX, Double cropY, Double cropWidth, Double cropHeight) {
+        return uploadStorageService.resolve(UploadStorageService.IMAGE_VARIANTS, variant.path(source, cropX, cropY, cropWidth, cropHeight));
+    }
+
+    // The size comes from the header, then only the crop rectangle is decoded, skipping the rows and columns the
+    // largest variant doesn't need. An upload with huge dimensions never becomes a full-size bitmap.
+    private BufferedImage decode(InputStream in, String source, List<ImageVariant> variants,
+                                 Double cropX, Double cropY, Double cropWidth, Double cropHeight) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = stream == null ? Collections.emptyIterator() : ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                Rectangle region = crop(reader.getWidth(0), reader.getHeight(0), cropX, cropY, cropWidth, cropHeight);
+                int subsampling = subsampling(region, variants);
+                long decodedPixels = (long) Math.ceilDiv(region.width, subsampling) * Math.ceilDiv(region.height, subsampling);
+                if (decodedPixels > maxDecodedPixels) {
+                    log.warn("Not rendering variants of {}, {}x{} is too large", source, reader.getWidth(0), reader.getHeight(0));
+                    return null;
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(region);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Crop values are fractions of the original size, as sent by the cover editor
+    private static Rectangle crop(int imageWidth, int imageHeight, Double cropX, Double cropY, Double cropWidth, Double cropHeight) {
+        if (cropX == null || cropY == null || cropWidth == null || cropHeight == null) {
+            return new Rectangle(0, 0, imageWidth, imageHeight);
+        }
+
+        int x = clamp((int) Math.round(cropX * imageWidth), 0, imageWidth - 1);
+        int y = clamp((int) Math.round(cropY * imageHeight), 0, imageHeight - 1);
+        int width = clamp((int) Math.round(cropWidth * imageWidth), 1, imageWidth - x);
+        int height = clamp((int) Math.round(cropHeight * imageHeight), 1, imageHeight - y);
+
+        return new Rectangle(x, y, width, height);
+    }
+
+    // Largest step that still leaves every variant at least its own width to scale down from
+    private static int subsampling(Rectangle region, List<ImageVariant> variants) {
+        int step = Integer.MAX_VALUE;
+        for (ImageVariant variant : variants) {
+            int width = variant.isSquare() ? Math.min(region.width, region.height) : region.width;
+            step = Math.min(step, Math.max(1, width / variant.getWidth()));
+        }
+        return step;
+    }
+
+    private static BufferedImage centerSquare(BufferedImage image) {
+        int side = Math.min(image.getWidth(), image.getHeight());
+        return image.getSubimage((image.getWidth() - side) / 2, (image.getHeight() - side) / 2, side, side);
+    }
+
+    // Halves the image until it is close to the target, one bilinear pass over a large reduction looks jagged.
+    // Images are never scaled up.
+    private static BufferedImage resize(BufferedImage image, int targetWidth) {
+        int width = image.getWidth();
+        BufferedImage current = image;
+        do {
+            width = width > targetWidth ? Math.max(width / 2, targetWidth) : width;
+            int height = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+            current = draw(current, width, height);
+        } while (width > targetWidth);
+
+        return current;
+    }
+
+    // Always draws onto an opaque RGB canvas, JPEG has no alpha channel
+    private static BufferedImage draw(BufferedImage image, int width, int height) {
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+
+    private static void write(BufferedImage image, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path part = target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".part");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(part.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+
+            try {
+                Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(value, max));
+    }
+}
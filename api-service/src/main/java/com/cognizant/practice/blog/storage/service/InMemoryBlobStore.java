@@ -0,0 +1,64 @@
+package com.cognizant.practice.blog.storage.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Blobs kept on the heap, for tests and throwaway environments, nothing survives a restart
+@Service
+@ConditionalOnProperty(name = "blog.blobs.backend", havingValue = "memory")
+public class InMemoryBlobStore implements BlobStore {
+    private record Blob(byte[] content, long lastModified) {
+    }
+
+    private final Map<String, Blob> blobs = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean contains(String hash) {
+        return blobs.containsKey(hash);
+    }
+
+    @Override
+    public void put(String hash, Path content) throws IOException {
+        try {
+            if (!blobs.containsKey(hash)) {
+                blobs.put(hash, new Blob(Files.readAllBytes(content), System.currentTimeMillis()));
+            }
+        } finally {
+            Files.deleteIfExists(content);
+        }
+    }
+
+    @Override
+    public Optional<Resource> get(String hash, String fileName) {
+        Blob blob = blobs.get(hash);
+        if (blob == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new ByteArrayResource(blob.content()) {
+            @Override
+            public String getFilename() {
+                return fileName;
+            }
+
+            @Override
+            public long lastModified() {
+                return blob.lastModified();
+            }
+        });
+    }
+
+    @Override
+    public void delete(String hash) {
+        blobs.remove(hash);
+    }
+}
@@ -0,0 +1,107 @@
+package com.cognizant.practice.blog.storage.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+// Blobs on local disk as <dir>/ab/cd/abcd..., two levels of prefixes keep every directory small
+@Service
+@ConditionalOnProperty(name = "blog.blobs.backend", havingValue = "local", matchIfMissing = true)
+public class LocalBlobStore implements BlobStore {
+    private final Path root;
+
+    public LocalBlobStore(@Value("${blog.upload.dir}") String uploadDir) {
+        this.root = Paths.get(uploadDir, "blobs").toAbsolutePath();
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    @Override
+    public boolean contains(String hash) {
+        return Files.exists(pathOf(hash));
+    }
+
+    @Override
+    public void put(String hash, Path content) throws IOException {
+        Path target = pathOf(hash);
+        if (Files.exists(target)) {
+            Files.deleteIfExists(content);
+            return;
+        }
+
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(content, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(content, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public Optional<Resource> get(String hash, String fileName) {
+        Path path = pathOf(hash);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new FileSystemResource(path) {
+            @Override
+            public String getFilename() {
+                return fileName;
+            }
+        });
+    }
+
+    // <fileName>.gz sits next to the blob, where EncodedResourceResolver looks for it
+    @Override
+    public void precompress(String hash, String fileName) throws IOException {
+        Path source = pathOf(hash);
+        Path target = source.resolveSibling(fileName + ".gz");
+        if (!Files.exists(source) || Files.exists(target)) {
+            return;
+        }
+
+        Path part = source.resolveSibling("." + fileName + ".gz." + UUID.randomUUID() + ".part");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(part))) {
+                Files.copy(source, out);
+            }
+            // Not worth serving if it barely shrinks
+            if (Files.size(part) < Files.size(source) * 9 / 10) {
+                Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    @Override
+    public void delete(String hash) throws IOException {
+        Path path = pathOf(hash);
+        try (DirectoryStream<Path> precompressed = Files.newDirectoryStream(path.getParent(), hash + ".*.gz")) {
+            for (Path file : precompressed) {
+                Files.deleteIfExists(file);
+            }
+        } catch (NoSuchFileException e) {
+            // Nothing was ever stored under this prefix
+        }
+        Files.deleteIfExists(path);
+    }
+}
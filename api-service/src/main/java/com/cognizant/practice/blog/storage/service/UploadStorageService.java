@@ -0,0 +1,123 @@
+package com.cognizant.practice.blog.storage.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Receives uploaded files under the uploads directory. The multipart temp file lives on the same disk
+// (spring.servlet.multipart.location) so receiving one is a rename, the bytes are never copied again after the
+// network read. Stores move the received file into place atomically, readers never see a half written file.
+@Service
+public class UploadStorageService {
+    private static final Logger log = LoggerFactory.getLogger(UploadStorageService.class);
+
+    public static final String ARTICLE_IMAGES = "article-images";
+    public static final String ARTICLE_MEDIA = "article-media";
+    public static final String PROFILE_PICTURES = "profile-pictures";
+    public static final String IMAGE_VARIANTS = "image-variants";
+    public static final String INCOMING = ".incoming";
+
+    private static final List<String> AREAS = List.of(ARTICLE_IMAGES, ARTICLE_MEDIA, PROFILE_PICTURES, IMAGE_VARIANTS, INCOMING);
+
+    @Value("${blog.upload.dir}")
+    private String uploadDir;
+
+    @Value("${blog.upload.post-processing.threads}")
+    private int postProcessingThreads;
+
+    @Value("${blog.upload.post-processing.queue-size}")
+    private int postProcessingQueueSize;
+
+    private Path root;
+    private ThreadPoolExecutor postProcessor;
+
+    // Directories are created once here instead of being checked on every upload
+    @PostConstruct
+    public void open() throws IOException {
+        root = Paths.get(uploadDir).toAbsolutePath();
+        for (String area : AREAS) {
+            Files.createDirectories(root.resolve(area));
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        postProcessor = new ThreadPoolExecutor(postProcessingThreads, postProcessingThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(postProcessingQueueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "upload-post-processing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        postProcessor.shutdown();
+        postProcessor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    public Path resolve(String area, String fileName) {
+        return root.resolve(area).resolve(fileName);
+    }
+
+    // Hands the upload over as a file of its own in the incoming directory, the caller moves it on or deletes it
+    public Path receive(MultipartFile file) throws IOException {
+        Path part = root.resolve(INCOMING).resolve(UUID.randomUUID() + ".part");
+        try {
+            // Absolute path, so the servlet container renames its temp file instead of streaming it through the heap
+            file.transferTo(part.toFile());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+
+        return part;
+    }
+
+    // Work that doesn't have to finish before the upload response goes out. The queue is bounded,
+    // when it is full the task is dropped rather than piling up behind a burst of uploads.
+    public void afterStore(String description, Runnable task) {
+        try {
+            postProcessor.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.warn("Upload post-processing failed: {}", description, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Upload post-processing queue is full, skipped: {}", description);
+        }
+    }
+
+    // Uploads from before the blob store were named after their owner and have no other references
+    public void removeLegacy(String area, String fileName) {
+        Path file = resolve(area, fileName).normalize();
+        if (!file.startsWith(root.resolve(area))) {
+            return;
+        }
+
+        afterStore("remove " + area + "/" + fileName, () -> {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to remove legacy upload {}/{}", area, fileName, e);
+            }
+        });
+    }
+}
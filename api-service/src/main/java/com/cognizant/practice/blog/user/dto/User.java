@@ -1,5 +1,7 @@
 package com.cognizant.practice.blog.user.dto;
 
+import com.cognizant.practice.blog.storage.dto.ImageVariant;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,6 +10,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 import java.util.UUID;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @AllArgsConstructor
@@ -28,7 +31,9 @@ public class User {
 
     private LocalDateTime createdDate;
 
-
-
-
+    // Square, resized copy of the profile picture, see ImageVariant
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Map<String, String> getProfilePictureVariants() {
+        return ImageVariant.urls(ImageVariant.PROFILE, profilePicture, null, null, null, null);
+    }
 }
@@ -0,0 +1,10 @@
+package com.cognizant.practice.blog.user.dto;
+
+import java.util.UUID;
+
+// The part of a user that article cards show (name and avatar), carried by list rows instead of the full User
+public record UserSummary(UUID id, String username, String firstName, String lastName, String profilePicture) {
+    public static UserSummary of(UUID id, String username, String firstName, String lastName, String profilePicture) {
+        return id == null ? null : new UserSummary(id, username, firstName, lastName, profilePicture);
+    }
+}
@@ -36,6 +36,8 @@ public class UserEntity implements UserDetails {
     private String profilePicture;
 
     private LocalDateTime createdDate;
+    // Set by every change to what articles embed of their users, part of the article ETag
+    private LocalDateTime updatedDate;
 
     private Role role;
 
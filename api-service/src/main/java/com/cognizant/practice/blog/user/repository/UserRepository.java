@@ -1,9 +1,11 @@
 package com.cognizant.practice.blog.user.repository;
 
 import com.cognizant.practice.blog.user.entity.UserEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +13,15 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<UserEntity, UUID> {
     Optional<UserEntity> findByUsername(String username);
     Optional<UserEntity> findByEmail(String email);
+
+    // Id ordered batches of users with a profile picture, each batch seeks past the last id
+    default List<UserEntity> findWithProfilePictureAfter(UUID after, int size) {
+        return after == null
+                ? findByProfilePictureIsNotNullOrderByIdAsc(Limit.of(size))
+                : findByProfilePictureIsNotNullAndIdGreaterThanOrderByIdAsc(after, Limit.of(size));
+    }
+
+    List<UserEntity> findByProfilePictureIsNotNullOrderByIdAsc(Limit limit);
+
+    List<UserEntity> findByProfilePictureIsNotNullAndIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
 }
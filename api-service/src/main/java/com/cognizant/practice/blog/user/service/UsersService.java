@@ -1,6 +1,19 @@
 package com.cognizant.practice.blog.user.service;
 
+import com.cognizant.practice.blog.article.service.ArticleCache;
+import com.cognizant.practice.blog.article.service.ArticleFacetService;
+import com.cognizant.practice.blog.article.service.ArticleListCache;
+import com.cognizant.practice.blog.article.service.ArticleTrendingService;
+import com.cognizant.practice.blog.article.service.ArticleViewService;
+import com.cognizant.practice.blog.article.service.ArticlesService;
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.article.repository.ArticleRepository;
+import com.cognizant.practice.blog.live.service.LiveUpdateService;
+import com.cognizant.practice.blog.search.service.ArticleSearchService;
 import com.cognizant.practice.blog.security.JwtService;
+import com.cognizant.practice.blog.storage.service.BlobService;
+import com.cognizant.practice.blog.storage.service.ImageVariantService;
+import com.cognizant.practice.blog.storage.service.UploadStorageService;
 import com.cognizant.practice.blog.user.convertor.UserConvertor;
 import com.cognizant.practice.blog.user.dto.Role;
 import com.cognizant.practice.blog.user.dto.User;
@@ -12,12 +25,7 @@ import com.cognizant.practice.blog.user.repository.UserRepository;
 import io.micrometer.common.util.StringUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import java.io.File;
-import java.nio.file.Path;
 import java.io.IOException;
-import java.nio.file.Paths;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -28,6 +36,7 @@ import org.springframework.web.server.ResponseStatusException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.Map;
@@ -42,12 +51,42 @@ public class UsersService {
     public PasswordEncoder passwordEncoder;
     public JwtService jwtService;
     private final AuthenticationManager authenticationManager;
-
-    public UsersService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtService jwtService, AuthenticationManager authenticationManager) {
+    // Cached articles embed their users and deleting a user deletes their articles
+    private final ArticleListCache articleListCache;
+    private final ArticleCache articleCache;
+    private final ArticleFacetService articleFacetService;
+    // Uploads are reference counted blobs, every profile picture or article that goes away releases its own
+    private final BlobService blobService;
+    private final ArticleRepository articleRepository;
+    private final ArticlesService articlesService;
+    private final ImageVariantService imageVariantService;
+    private final ArticleViewService articleViewService;
+    private final ArticleTrendingService articleTrendingService;
+    private final LiveUpdateService liveUpdateService;
+    // The index stores author usernames
+    private final ArticleSearchService articleSearchService;
+
+    public UsersService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtService jwtService, AuthenticationManager authenticationManager,
+                        ArticleListCache articleListCache, ArticleCache articleCache, ArticleFacetService articleFacetService,
+                        BlobService blobService, ArticleRepository articleRepository, ArticlesService articlesService,
+                        ImageVariantService imageVariantService, ArticleViewService articleViewService,
+                        ArticleTrendingService articleTrendingService, LiveUpdateService liveUpdateService,
+                        ArticleSearchService articleSearchService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
+        this.articleListCache = articleListCache;
+        this.articleCache = articleCache;
+        this.articleFacetService = articleFacetService;
+        this.blobService = blobService;
+        this.articleRepository = articleRepository;
+        this.articlesService = articlesService;
+        this.imageVariantService = imageVariantService;
+        this.articleViewService = articleViewService;
+        this.articleTrendingService = articleTrendingService;
+        this.liveUpdateService = liveUpdateService;
+        this.articleSearchService = articleSearchService;
     }
 
     public boolean isValidParam(String param) {
@@ -107,7 +146,7 @@ public class UsersService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email already exists");
         }
 
-        UserEntity newUser = new UserEntity(null, userRequest.lastName(), userRequest.firstName(), userRequest.username(), userRequest.email(), passwordEncoder.encode(userRequest.password()), null,LocalDateTime.now(), Role.ROLE_USER, new ArrayList<String>(), null, null);
+        UserEntity newUser = new UserEntity(null, userRequest.lastName(), userRequest.firstName(), userRequest.username(), userRequest.email(), passwordEncoder.encode(userRequest.password()), null,LocalDateTime.now(), null, Role.ROLE_USER, new ArrayList<String>(), null, null);
 
 //         return jwtService.generateToken(userRepository.save(newUser));
         Map<String, Object> extraClaims = new HashMap<>();
@@ -134,7 +173,24 @@ public class UsersService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
         }
 
+        List<ArticleEntity> articles = articleRepository.findAllByAuthor(user.get());
+        List<UUID> commented = articleRepository.findIdsCommentedOnBy(user.get());
         userRepository.deleteById(id);
+        // The user's comments went with them, the counters of the articles they were on are recounted right away
+        if (!commented.isEmpty()) {
+            articleRepository.recountCommentStats(commented, LocalDateTime.now());
+        }
+        blobService.release(UploadStorageService.PROFILE_PICTURES, user.get().getProfilePicture());
+        articles.forEach(articlesService::releaseUploads);
+        articles.forEach(article -> {
+            articleViewService.articleDeleted(article.getId());
+            articleTrendingService.articleDeleted(article.getId());
+            liveUpdateService.articleDeleted(article.getId());
+            articleSearchService.delete(article.getId());
+        });
+        articleFacetService.authorRemoved(user.get().getUsername());
+        articleListCache.invalidate();
+        articleCache.invalidateAll();
     }
 
     public User updateUserRole(UUID id, Role role) {
@@ -144,7 +200,12 @@ public class UsersService {
         }
 
         user.get().setRole(role);
-        return UserConvertor.toDto(userRepository.save(user.get()));
+        user.get().setUpdatedDate(LocalDateTime.now());
+        User updatedUser = UserConvertor.toDto(userRepository.save(user.get()));
+        // Only full articles carry the role, list rows have the name and avatar of their users
+        articleCache.invalidateAll();
+
+        return updatedUser;
     }
 
     public User updateUser(UUID id, UserEditRequest userRequest) {
@@ -167,14 +228,30 @@ public class UsersService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
         }
 
+        String previousUsername = user.get().getUsername();
+        String previousProfilePicture = user.get().getProfilePicture();
         user.get().setLastName(userRequest.lastName());
         user.get().setFirstName(userRequest.firstName());
         user.get().setUsername(userRequest.username());
         user.get().setEmail(userRequest.email());
         user.get().setRole(userRequest.role());
         user.get().setProfilePicture(userRequest.profilePicture());
+        user.get().setUpdatedDate(LocalDateTime.now());
 
-        return UserConvertor.toDto(userRepository.save(user.get()));
+        User updatedUser = UserConvertor.toDto(userRepository.save(user.get()));
+        if (!Objects.equals(previousProfilePicture, updatedUser.getProfilePicture())) {
+            blobService.retain(updatedUser.getProfilePicture());
+            blobService.release(UploadStorageService.PROFILE_PICTURES, previousProfilePicture);
+            imageVariantService.renderAvatar(updatedUser.getProfilePicture());
+        }
+        articleFacetService.authorRenamed(previousUsername, updatedUser.getUsername());
+        if (!previousUsername.equals(updatedUser.getUsername())) {
+            articleSearchService.authorRenamed(id);
+        }
+        articleListCache.invalidate();
+        articleCache.invalidateAll();
+
+        return updatedUser;
     }
 
     public User uploadProfilePicture(MultipartFile file, UUID id) {
@@ -182,23 +259,26 @@ public class UsersService {
         if(user.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
         }
-        File directory = new File("uploads/profile-pictures");
-        if(!directory.exists()) {
-            directory.mkdirs();
-        }
 
         String extension = file.getOriginalFilename().substring(file.getOriginalFilename().lastIndexOf("."));
-        String fileName = "user-" + user.get().getId() + extension;
-        String filePath = System.getProperty("user.dir") + "/uploads/profile-pictures/" + fileName;
-        Path path = Paths.get(filePath);
+        String fileName;
         try {
-            Files.copy(file.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
+            fileName = blobService.store(file, extension);
         } catch (IOException e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to upload profile picture");
         }
+        String previousProfilePicture = user.get().getProfilePicture();
 
         user.get().setProfilePicture(fileName);
+        user.get().setUpdatedDate(LocalDateTime.now());
         // return filePath;
-        return UserConvertor.toDto(userRepository.save(user.get()));
+        User updatedUser = UserConvertor.toDto(userRepository.save(user.get()));
+        blobService.release(UploadStorageService.PROFILE_PICTURES, previousProfilePicture);
+        imageVariantService.renderAvatar(fileName);
+        // List rows show the avatar of their author and editor
+        articleListCache.invalidate();
+        articleCache.invalidateAll();
+
+        return updatedUser;
     }
 }
@@ -0,0 +1,28 @@
+package com.cognizant.practice.blog;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Counts the JDBC statements Hibernate prepares, so listings can be held to a fixed number of queries
+public class QueryBudget {
+    private final Statistics statistics;
+
+    public QueryBudget(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    public void assertAtMost(long budget) {
+        long statements = statistics.getPrepareStatementCount();
+        if (statements > budget) {
+            fail("Expected at most " + budget + " queries but " + statements + " were executed");
+        }
+    }
+}
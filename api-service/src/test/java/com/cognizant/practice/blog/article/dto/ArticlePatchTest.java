@@ -0,0 +1,93 @@
+package com.cognizant.practice.blog.article.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArticlePatchTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void shouldTellNullMembersFromAbsentOnes() {
+        ArticlePatch patch = ArticlePatch.from(json("{\"category\": null}"));
+
+        assertTrue(patch.hasCategory());
+        assertNull(patch.getCategory());
+        assertFalse(patch.hasTitle());
+        assertFalse(patch.hasContent());
+        assertTrue(patch.getContentEdits().isEmpty());
+    }
+
+    @Test
+    void shouldReadContentEditsWithDefaults() {
+        ArticlePatch patch = ArticlePatch.from(json("{\"contentEdits\": [{\"at\": 3, \"delete\": 2}, {\"at\": 0, \"insert\": \"Hi\"}]}"));
+
+        assertEquals(List.of(new ContentEdit(3, 2, ""), new ContentEdit(0, 0, "Hi")), patch.getContentEdits());
+    }
+
+    @Test
+    void shouldRejectContentTogetherWithContentEdits() {
+        assertBadRequest("{\"content\": \"new\", \"contentEdits\": [{\"at\": 0, \"insert\": \"x\"}]}");
+    }
+
+    @Test
+    void shouldRejectFractionalAndOutOfRangeOffsets() {
+        assertBadRequest("{\"contentEdits\": [{\"at\": 1.5}]}");
+        assertBadRequest("{\"contentEdits\": [{\"at\": 1, \"delete\": 2.0}]}");
+        assertBadRequest("{\"contentEdits\": [{\"at\": 4294967296}]}");
+        assertBadRequest("{\"contentEdits\": [{\"at\": \"3\"}]}");
+        assertBadRequest("{\"contentEdits\": [{\"delete\": 1}]}");
+    }
+
+    @Test
+    void shouldRejectUnknownAndMistypedMembers() {
+        assertBadRequest("{\"views\": 3}");
+        assertBadRequest("{\"title\": 3}");
+        assertBadRequest("[]");
+    }
+
+    @Test
+    void shouldApplyEachEditToTheTextLeftByThePreviousOne() {
+        List<ContentEdit> edits = List.of(
+                new ContentEdit(5, 0, ","),       // "Hello, world"
+                new ContentEdit(7, 5, "there"),   // "Hello, there"
+                new ContentEdit(12, 0, "!"));     // only fits the text after the first two edits
+
+        assertEquals("Hello, there!", ArticlePatch.apply("Hello world", edits));
+    }
+
+    @Test
+    void shouldRefuseEditsOutsideTheText() {
+        assertNull(ArticlePatch.apply("abc", List.of(new ContentEdit(4, 0, "x"))));
+        assertNull(ArticlePatch.apply("abc", List.of(new ContentEdit(-1, 0, "x"))));
+        assertNull(ArticlePatch.apply("abc", List.of(new ContentEdit(1, 3, ""))));
+        assertNull(ArticlePatch.apply("abc", List.of(new ContentEdit(0, -1, ""))));
+        // The second edit is in range of the original text but not of what the first one left
+        assertNull(ArticlePatch.apply("abcdef", List.of(new ContentEdit(0, 4, ""), new ContentEdit(3, 0, "x"))));
+    }
+
+    @Test
+    void shouldAppendAtTheEndAndTreatMissingContentAsEmpty() {
+        assertEquals("abcd", ArticlePatch.apply("abc", List.of(new ContentEdit(3, 0, "d"))));
+        assertEquals("x", ArticlePatch.apply(null, List.of(new ContentEdit(0, 0, "x"))));
+    }
+
+    private static void assertBadRequest(String body) {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> ArticlePatch.from(json(body)));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    private static JsonNode json(String body) {
+        try {
+            return MAPPER.readTree(body);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.cognizant.practice.blog.article.repository;
+
+import com.cognizant.practice.blog.QueryBudget;
+import com.cognizant.practice.blog.article.convertor.ArticleConvertor;
+import com.cognizant.practice.blog.article.dto.Article;
+import com.cognizant.practice.blog.article.dto.ArticleFacetCell;
+import com.cognizant.practice.blog.article.dto.ArticleSummary;
+import com.cognizant.practice.blog.article.dto.ArticleVersion;
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.config.ETags;
+import com.cognizant.practice.blog.comment.entity.CommentEntity;
+import com.cognizant.practice.blog.user.dto.Role;
+import com.cognizant.practice.blog.user.entity.UserEntity;
+import com.cognizant.practice.blog.user.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class ArticleRepositoryTest {
+    private static final int ARTICLES = 8;
+
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    ArticleRepository articleRepository;
+    @Autowired
+    UserRepository userRepository;
+
+    QueryBudget queryBudget;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ARTICLES; i++) {
+            UserEntity author = entityManager.persist(UserEntity.builder().username("author" + i).role(Role.ROLE_AUTHOR).createdDate(LocalDateTime.now()).build());
+            UserEntity editor = entityManager.persist(UserEntity.builder().username("editor" + i).role(Role.ROLE_AUTHOR).createdDate(LocalDateTime.now()).build());
+            entityManager.persist(ArticleEntity.builder().title("title" + i).content("content" + i).summary("content" + i)
+                    .createdDate(LocalDateTime.now().minusMinutes(i)).updatedDate(LocalDateTime.now())
+                    .mediaUrls(new ArrayList<>()).author(author).editor(editor).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        queryBudget = new QueryBudget(entityManagerFactory);
+        queryBudget.reset();
+    }
+
+    @Test
+    void shouldLoadArticlePageWithAuthorsInOneQuery() {
+        Specification<ArticleEntity> specification = (root, query, cb) -> cb.conjunction();
+
+        List<Article> articles = articleRepository.findAll(specification, PageRequest.of(0, 20, Sort.by("createdDate")))
+                .stream().map(ArticleConvertor::toDto).collect(Collectors.toList());
+
+        assertEquals(ARTICLES, articles.size());
+        queryBudget.assertAtMost(1);
+    }
+
+    @Test
+    void shouldLoadArticleByIdWithAuthorsInOneQuery() {
+        ArticleEntity first = articleRepository.findAll(PageRequest.of(0, 1)).getContent().getFirst();
+        entityManager.clear();
+        queryBudget.reset();
+
+        Article article = ArticleConvertor.toDto(articleRepository.findById(first.getId()).orElseThrow());
+
+        assertNotNull(article.getAuthor().getUsername());
+        queryBudget.assertAtMost(1);
+    }
+
+    @Test
+    void shouldChangeArticleETagWhenItsAuthorChanges() {
+        ArticleEntity article = articleRepository.findAll(PageRequest.of(0, 1)).getContent().getFirst();
+        ArticleVersion before = articleRepository.findArticleVersionById(article.getId()).orElseThrow();
+        assertEquals(before.etag(), ArticleVersion.of(article).etag());
+
+        article.getAuthor().setUsername("renamed");
+        article.getAuthor().setUpdatedDate(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        entityManager.flush();
+        entityManager.clear();
+
+        ArticleVersion after = articleRepository.findArticleVersionById(article.getId()).orElseThrow();
+        assertEquals(before.version(), after.version());
+        assertNotEquals(before.etag(), after.etag());
+        assertEquals(after.etag(), ArticleVersion.of(articleRepository.findById(article.getId()).orElseThrow()).etag());
+    }
+
+    @Test
+    void shouldLoadSummariesInOneQuery() {
+        Specification<ArticleEntity> specification = (root, query, cb) -> cb.conjunction();
+
+        List<ArticleSummary> summaries = articleRepository.findSummaries(specification, Sort.by("createdDate"), 0, 20);
+
+        assertEquals(ARTICLES, summaries.size());
+        assertTrue(summaries.stream().allMatch(summary -> summary.getAuthorUsername() != null));
+        // Cards show the author and editor names from the same query
+        assertTrue(summaries.stream().allMatch(summary -> summary.getAuthor().username().startsWith("author")
+                && summary.getEditor().username().startsWith("editor")));
+        queryBudget.assertAtMost(1);
+    }
+
+    @Test
+    void shouldGroupFacetCellsInOneQuery() {
+        Specification<ArticleEntity> specification = (root, query, cb) -> null;
+
+        List<ArticleFacetCell> cells = articleRepository.findFacetCells(specification);
+
+        assertEquals(ARTICLES, cells.stream().mapToLong(ArticleFacetCell::count).sum());
+        assertTrue(cells.stream().allMatch(cell -> cell.author() != null && cell.year() != null && cell.month() != null));
+        queryBudget.assertAtMost(1);
+    }
+
+    @Test
+    void shouldStreamArticlesWithAuthorsInOneQuery() {
+        try (Stream<ArticleEntity> articles = articleRepository.streamAll()) {
+            List<Article> exported = articles.map(ArticleConvertor::toDto).collect(Collectors.toList());
+
+            assertEquals(ARTICLES, exported.size());
+        }
+        queryBudget.assertAtMost(1);
+    }
+
+    @Test
+    void shouldKeepCommentStatsInPlaceAndRepairDrift() {
+        ArticleEntity article = articleRepository.findAll(PageRequest.of(0, 1)).getContent().getFirst();
+        ArticleVersion before = articleRepository.findArticleVersionById(article.getId()).orElseThrow();
+        // The column keeps microseconds, a nanosecond clock value would not compare equal after the round trip
+        LocalDateTime commentedAt = LocalDateTime.now().plusMinutes(5).truncatedTo(ChronoUnit.MICROS);
+        entityManager.persist(CommentEntity.builder().content("comment").dateCreated(commentedAt).dateEdited(commentedAt)
+                .articleEntity(article).author(article.getAuthor()).editor(article.getAuthor()).build());
+        entityManager.flush();
+
+        assertEquals(1, articleRepository.commentAdded(article.getId(), commentedAt, commentedAt));
+        assertEquals(1, articleRepository.commentAdded(article.getId(), commentedAt.minusMinutes(1), commentedAt.plusMinutes(1)));
+        entityManager.clear();
+
+        ArticleEntity counted = articleRepository.findById(article.getId()).orElseThrow();
+        assertEquals(2, counted.getCommentCount());
+        assertEquals(commentedAt, counted.getLastCommentAt());
+
+        // Same version, so editors aren't sent into conflicts, but a different ETag, so readers see the new counters
+        ArticleVersion after = articleRepository.findArticleVersionById(article.getId()).orElseThrow();
+        assertEquals(before.version(), after.version());
+        assertNotEquals(before.etag(), after.etag());
+        assertEquals(before.version(), ETags.parseVersion(after.etag()));
+        // Last-Modified follows the counter change, not the date of the comment
+        assertEquals(toEpochMilli(commentedAt.plusMinutes(1)), after.lastModified());
+
+        // Only the article with the made up second comment is off, the repair is a change of its own
+        assertEquals(1, articleRepository.reconcileCommentStats(commentedAt.plusMinutes(2)));
+        entityManager.clear();
+
+        ArticleEntity repaired = articleRepository.findById(article.getId()).orElseThrow();
+        assertEquals(1, repaired.getCommentCount());
+        assertEquals(toEpochMilli(commentedAt.plusMinutes(2)), ArticleVersion.of(repaired).lastModified());
+        assertEquals(0, articleRepository.reconcileCommentStats(commentedAt.plusMinutes(3)));
+    }
+
+    @Test
+    void shouldRecountArticlesWhoseCommenterIsDeleted() {
+        List<ArticleEntity> articles = articleRepository.findAll(Sort.by("title"));
+        ArticleEntity own = articles.get(0);
+        ArticleEntity other = articles.get(1);
+        UserEntity commenter = own.getAuthor();
+        LocalDateTime commentedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        comment(own, commenter, commentedAt);
+        comment(other, commenter, commentedAt.plusMinutes(2));
+        comment(other, commenter, commentedAt.plusMinutes(3));
+        comment(other, other.getAuthor(), commentedAt.plusMinutes(1));
+        entityManager.flush();
+
+        assertEquals(List.of(other.getId()), articleRepository.findIdsCommentedOnBy(commenter));
+
+        userRepository.deleteById(commenter.getId());
+        entityManager.flush();
+        assertEquals(1, articleRepository.recountCommentStats(List.of(other.getId()), commentedAt.plusMinutes(4)));
+        entityManager.clear();
+
+        ArticleEntity recounted = articleRepository.findById(other.getId()).orElseThrow();
+        assertEquals(1, recounted.getCommentCount());
+        assertEquals(commentedAt.plusMinutes(1), recounted.getLastCommentAt());
+        assertEquals(toEpochMilli(commentedAt.plusMinutes(4)), ArticleVersion.of(recounted).lastModified());
+        assertEquals(0, articleRepository.reconcileCommentStats(commentedAt.plusMinutes(5)));
+    }
+
+    @Test
+    void shouldPageThroughUncommentedArticlesByLastCommentWithoutRepeats() {
+        Specification<ArticleEntity> all = (root, query, cb) -> null;
+        Sort byLastComment = Sort.by(Sort.Order.desc("lastCommentAt").nullsLast(), Sort.Order.asc("id"));
+
+        List<UUID> visited = new ArrayList<>();
+        for (long offset = 0; offset < ARTICLES; offset += 3) {
+            articleRepository.findSummaries(all, byLastComment, offset, 3).forEach(summary -> visited.add(summary.getId()));
+        }
+
+        assertEquals(ARTICLES, visited.stream().distinct().count());
+        assertEquals(articleRepository.findSummaries(all, byLastComment, 0, ARTICLES).stream().map(ArticleSummary::getId).toList(), visited);
+    }
+
+    @Test
+    void shouldVisitEveryArticleOnceInIdBatches() {
+        List<ArticleEntity> visited = new ArrayList<>();
+        UUID after = null;
+        List<ArticleEntity> batch;
+        do {
+            batch = articleRepository.findBatchAfter(after, 3);
+            visited.addAll(batch);
+            after = batch.isEmpty() ? after : batch.getLast().getId();
+        } while (batch.size() == 3);
+
+        assertEquals(ARTICLES, visited.stream().map(ArticleEntity::getId).distinct().count());
+    }
+
+    private void comment(ArticleEntity article, UserEntity author, LocalDateTime at) {
+        entityManager.persist(CommentEntity.builder().content("comment").dateCreated(at).dateEdited(at)
+                .articleEntity(article).author(author).editor(author).build());
+        articleRepository.commentAdded(article.getId(), at, at);
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,34 @@
+package com.cognizant.practice.blog.article.repository;
+
+import com.cognizant.practice.blog.article.entity.ArticleViewEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class ArticleViewRepositoryTest {
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    ArticleViewRepository articleViewRepository;
+
+    @Test
+    void shouldAddToExistingAndInsertNewCounts() {
+        UUID existing = UUID.randomUUID();
+        UUID added = UUID.randomUUID();
+        entityManager.persist(new ArticleViewEntity(existing, 5));
+        entityManager.flush();
+
+        articleViewRepository.addViews(Map.of(existing, 3L, added, 2L));
+        entityManager.clear();
+
+        assertEquals(8, articleViewRepository.findById(existing).orElseThrow().getViews());
+        assertEquals(2, articleViewRepository.findById(added).orElseThrow().getViews());
+    }
+}
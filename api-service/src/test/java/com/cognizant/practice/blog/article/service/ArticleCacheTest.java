@@ -0,0 +1,77 @@
+package com.cognizant.practice.blog.article.service;
+
+import com.cognizant.practice.blog.article.dto.Article;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArticleCacheTest {
+    private static final UUID ID = UUID.randomUUID();
+
+    ArticleCache articleCache = new ArticleCache(new SimpleMeterRegistry(), 100, 3600);
+
+    @Test
+    void shouldLoadOnceForConcurrentMisses() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Article article = Article.builder().id(ID).title("Title").build();
+        List<Article> results = new ArrayList<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                Article result = articleCache.get(ID, id -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return article;
+                });
+                synchronized (results) {
+                    results.add(result);
+                }
+            }));
+        }
+
+        // The loader waits on the latch and every other reader waits on its future
+        await(() -> readers.stream().allMatch(reader -> reader.getState() == Thread.State.WAITING));
+        release.countDown();
+        for (Thread reader : readers) {
+            reader.join(5000);
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(8, results.size());
+        results.forEach(result -> assertSame(article, result));
+    }
+
+    @Test
+    void shouldLoadAgainAfterLoaderFails() {
+        Article article = Article.builder().id(ID).title("Title").build();
+
+        assertThrows(StackOverflowError.class, () -> articleCache.get(ID, id -> {
+            throw new StackOverflowError();
+        }));
+
+        assertSame(article, articleCache.get(ID, id -> article));
+        assertSame(article, articleCache.get(ID, id -> fail("Should be cached")));
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting");
+            Thread.onSpinWait();
+        }
+    }
+}
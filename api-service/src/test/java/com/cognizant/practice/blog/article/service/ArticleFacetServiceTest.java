@@ -0,0 +1,41 @@
+package com.cognizant.practice.blog.article.service;
+
+import com.cognizant.practice.blog.article.dto.ArticleFacetCell;
+import com.cognizant.practice.blog.article.dto.ArticleFacets;
+import com.cognizant.practice.blog.article.repository.ArticleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ArticleFacetServiceTest {
+    @Test
+    void shouldRepairDriftedCountsOnRecount() {
+        ArticleRepository articleRepository = mock(ArticleRepository.class);
+        when(articleRepository.findFacetCells(any())).thenReturn(List.of(
+                new ArticleFacetCell("Travel", "lila", 2026, 3, 2L),
+                new ArticleFacetCell("Food", "omar", 2026, 4, 1L)));
+        ArticleFacetService facetService = new ArticleFacetService(articleRepository);
+        facetService.load();
+
+        // An update the service never heard of moved an article, another one is counted that doesn't exist
+        facetService.articleAdded("Music", "lila", LocalDateTime.of(2026, 5, 1, 12, 0));
+        when(articleRepository.findFacetCells(any())).thenReturn(List.of(
+                new ArticleFacetCell("Travel", "lila", 2026, 3, 1L),
+                new ArticleFacetCell("Food", "omar", 2026, 4, 1L),
+                new ArticleFacetCell("Food", "lila", 2026, 3, 1L)));
+
+        facetService.recount();
+
+        ArticleFacets facets = facetService.getFacets(null, null);
+        assertEquals(Map.of("Travel", 1L, "Food", 2L), facets.getCategories());
+        assertEquals(Map.of("lila", 2L, "omar", 1L), facets.getAuthors());
+        assertEquals(Map.of("2026-03", 2L, "2026-04", 1L), facets.getMonths());
+    }
+}
@@ -0,0 +1,38 @@
+package com.cognizant.practice.blog.article.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArticleListCacheTest {
+    ArticleListCache listCache = new ArticleListCache(new SimpleMeterRegistry(), 100, 3600);
+
+    @Test
+    void shouldKeepListETagUntilSomethingChanges() {
+        String etag = etag("Travel", "lila");
+
+        assertEquals(etag, etag("travel", "LILA"));
+        assertNotEquals(etag, etag("travel", "marta"));
+
+        listCache.commentsChanged(UUID.randomUUID());
+        String afterComment = etag("travel", "lila");
+        assertNotEquals(etag, afterComment);
+
+        listCache.invalidate();
+        assertNotEquals(afterComment, etag("travel", "lila"));
+    }
+
+    @Test
+    void shouldNotReuseListETagsAfterRestart() {
+        ArticleListCache restarted = new ArticleListCache(new SimpleMeterRegistry(), 100, 3600);
+
+        assertNotEquals(etag("travel", "lila"), restarted.etag("offset", 10, 0, "travel", "lila", null, null, "createdDate desc", false));
+    }
+
+    private String etag(String title, String author) {
+        return listCache.etag("offset", 10, 0, title, author, null, null, "createdDate desc", false);
+    }
+}
@@ -0,0 +1,172 @@
+package com.cognizant.practice.blog.article.service;
+
+import com.cognizant.practice.blog.article.dto.ArticleSummary;
+import com.cognizant.practice.blog.article.dto.TrendingArticle;
+import com.cognizant.practice.blog.article.repository.ArticleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ArticleTrendingServiceTest {
+    private static final UUID A = UUID.randomUUID();
+    private static final UUID B = UUID.randomUUID();
+    private static final UUID C = UUID.randomUUID();
+
+    @TempDir
+    Path dir;
+
+    ArticleRepository articleRepository;
+    MutableClock clock;
+    ArticleTrendingService trendingService;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository = mock(ArticleRepository.class);
+        List<ArticleSummary> summaries = List.of(summary(A), summary(B), summary(C));
+        when(articleRepository.findSummaries(any(), any(), anyLong(), anyInt())).thenReturn(summaries);
+        clock = new MutableClock();
+        trendingService = service();
+    }
+
+    @Test
+    void shouldKeepOrderWhileTimePassesAndDecayOnRead() {
+        trendingService.viewsAdded(Map.of(A, 4L));
+        clock.advance(Duration.ofHours(1));
+        trendingService.viewsAdded(Map.of(B, 3L));
+
+        List<TrendingArticle> now = trendingService.getTrending(10);
+        assertEquals(List.of(B, A), ids(now));
+        assertEquals(3, now.get(0).score(), 1e-9);
+        assertEquals(2, now.get(1).score(), 1e-9);
+
+        clock.advance(Duration.ofHours(10));
+
+        List<TrendingArticle> later = trendingService.getTrending(10);
+        assertEquals(List.of(B, A), ids(later));
+        assertEquals(3 / 1024.0, later.get(0).score(), 1e-9);
+        assertEquals(2 / 1024.0, later.get(1).score(), 1e-9);
+    }
+
+    @Test
+    void shouldReplaceLowestOfTopOnlyWhenOutranked() {
+        trendingService.viewsAdded(Map.of(A, 3L, B, 2L, C, 1L));
+        assertEquals(List.of(A, B), ids(trendingService.getTrending(10)));
+
+        trendingService.viewsAdded(Map.of(C, 1L));
+        assertEquals(List.of(A, B), ids(trendingService.getTrending(10)));
+
+        trendingService.commentAdded(C);
+        assertEquals(List.of(C, A), ids(trendingService.getTrending(10)));
+        assertEquals(List.of(C), ids(trendingService.getTrending(1)));
+    }
+
+    @Test
+    void shouldRefillTopAfterDelete() {
+        trendingService.viewsAdded(Map.of(A, 3L, B, 2L, C, 1L));
+
+        trendingService.articleDeleted(A);
+
+        List<TrendingArticle> trending = trendingService.getTrending(10);
+        assertEquals(List.of(B, C), ids(trending));
+        assertEquals(1, trending.get(1).score(), 1e-9);
+    }
+
+    @Test
+    void shouldRebaseAndPruneOnCheckpoint() {
+        trendingService.viewsAdded(Map.of(A, 1L, B, 100L));
+        clock.advance(Duration.ofHours(10));
+        double before = trendingService.getTrending(10).getFirst().score();
+        assertEquals(List.of(B, A), ids(trendingService.getTrending(10)));
+
+        trendingService.checkpoint();
+
+        // A decayed below a thousandth of a view, B keeps its score across the new landmark
+        List<TrendingArticle> after = trendingService.getTrending(10);
+        assertEquals(List.of(B), ids(after));
+        assertEquals(before, after.getFirst().score(), 1e-12);
+
+        trendingService.viewsAdded(Map.of(A, 1L));
+        assertEquals(1, trendingService.getTrending(10).getFirst().score(), 1e-9);
+    }
+
+    @Test
+    void shouldRestoreRankingFromCheckpoint() {
+        trendingService.viewsAdded(Map.of(A, 3L, B, 2L, C, 1L));
+        clock.advance(Duration.ofHours(2));
+        trendingService.commentAdded(C);
+        List<TrendingArticle> written = trendingService.getTrending(10);
+        trendingService.close();
+
+        clock.advance(Duration.ofHours(1));
+        ArticleTrendingService restored = service();
+        restored.load();
+
+        List<TrendingArticle> read = restored.getTrending(10);
+        assertEquals(ids(written), ids(read));
+        for (int i = 0; i < read.size(); i++) {
+            assertEquals(written.get(i).score() / 2, read.get(i).score(), 1e-9);
+        }
+        verify(articleRepository, never()).findSummaries(any(), eq(Sort.by("id")), anyLong(), anyInt());
+    }
+
+    private ArticleTrendingService service() {
+        ArticleTrendingService service = new ArticleTrendingService(articleRepository, 1, 2, clock);
+        ReflectionTestUtils.setField(service, "viewWeight", 1.0);
+        ReflectionTestUtils.setField(service, "commentWeight", 5.0);
+        ReflectionTestUtils.setField(service, "newArticleWeight", 20.0);
+        ReflectionTestUtils.setField(service, "checkpointFile", dir.resolve("trending/scores.bin").toString());
+        return service;
+    }
+
+    private static List<UUID> ids(List<TrendingArticle> trending) {
+        return trending.stream().map(entry -> entry.article().getId()).toList();
+    }
+
+    private static ArticleSummary summary(UUID id) {
+        return ArticleSummary.builder().id(id).title("Article " + id).build();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.cognizant.practice.blog.article.service;
+
+import com.cognizant.practice.blog.QueryBudget;
+import com.cognizant.practice.blog.article.dto.ArticlePage;
+import com.cognizant.practice.blog.article.dto.ArticleSummary;
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.article.repository.ArticleRepository;
+import com.cognizant.practice.blog.config.BackgroundJobs;
+import com.cognizant.practice.blog.live.service.LiveUpdateService;
+import com.cognizant.practice.blog.search.service.ArticleSearchService;
+import com.cognizant.practice.blog.storage.service.BlobService;
+import com.cognizant.practice.blog.storage.service.ChunkedUploadService;
+import com.cognizant.practice.blog.storage.service.ImageVariantService;
+import com.cognizant.practice.blog.user.dto.Role;
+import com.cognizant.practice.blog.user.entity.UserEntity;
+import com.cognizant.practice.blog.user.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+// Cursor paging against the database, the seek predicate and the cursor codec have to agree on the ordering
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class ArticlesServiceCursorTest {
+    private static final int ARTICLES = 11;
+
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    ArticleRepository articleRepository;
+    @Autowired
+    UserRepository userRepository;
+
+    ArticlesService articlesService;
+    QueryBudget queryBudget;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity author = entityManager.persist(UserEntity.builder().username("lila").role(Role.ROLE_AUTHOR).createdDate(LocalDateTime.now()).build());
+        // Most rows share their title and creation date, only the id tiebreaker tells them apart
+        LocalDateTime createdDate = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        for (int i = 0; i < ARTICLES; i++) {
+            entityManager.persist(ArticleEntity.builder().title(i < 3 ? "title" + i : "same").content("content").summary("content")
+                    .createdDate(i < 3 ? createdDate.minusMinutes(i + 1) : createdDate).updatedDate(createdDate)
+                    .mediaUrls(new ArrayList<>()).author(author).editor(author).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        articlesService = new ArticlesService(articleRepository, userRepository, mock(ArticleSearchService.class),
+                mock(ArticleListCache.class), mock(ArticleCache.class), mock(ArticleCountCache.class), mock(ArticleFacetService.class),
+                mock(BlobService.class), mock(ImageVariantService.class), mock(ChunkedUploadService.class),
+                mock(ArticleViewService.class), mock(ArticleTrendingService.class), mock(LiveUpdateService.class), new BackgroundJobs());
+        queryBudget = new QueryBudget(entityManagerFactory);
+    }
+
+    @Test
+    void shouldPageThroughEqualSortValuesWithoutGapsOrRepeats() {
+        for (String sort : List.of("createdDate desc", "createdDate asc", "title asc, createdDate desc", "title desc")) {
+            // The whole ordering in one page, with the same id tiebreaker
+            List<UUID> expected = articlesService.getArticlesAfter(ARTICLES, null, null, null, null, null, sort, false)
+                    .getArticles().stream().map(ArticleSummary::getId).toList();
+
+            List<UUID> visited = new ArrayList<>();
+            String after = null;
+            do {
+                queryBudget.reset();
+                ArticlePage page = articlesService.getArticlesAfter(3, after, null, null, null, null, sort, false);
+                // One query for the page and its look-ahead row, no count
+                queryBudget.assertAtMost(1);
+
+                page.getArticles().forEach(summary -> visited.add(summary.getId()));
+                assertEquals(page.isHasNext(), page.getNextCursor() != null);
+                after = page.getNextCursor();
+            } while (after != null);
+
+            assertEquals(ARTICLES, visited.stream().distinct().count(), sort);
+            assertEquals(expected, visited, sort);
+        }
+    }
+
+    @Test
+    void shouldRejectMalformedOrTamperedCursor() {
+        String cursor = articlesService.getArticlesAfter(3, null, null, null, null, null, "createdDate desc", false).getNextCursor();
+        String[] parts = cursor.split("\\.");
+
+        for (String after : List.of("garbage", "!!!." + parts[1], parts[0], cursor + "." + parts[1],
+                parts[0] + "." + encode("not-an-id"), encode("yesterday") + "." + parts[1])) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> articlesService.getArticlesAfter(3, after, null, null, null, null, "createdDate desc", false), after);
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        }
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,115 @@
+package com.cognizant.practice.blog.article.service;
+
+import com.cognizant.practice.blog.article.dto.Article;
+import com.cognizant.practice.blog.article.dto.ArticlePatch;
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.article.repository.ArticleRepository;
+import com.cognizant.practice.blog.config.BackgroundJobs;
+import com.cognizant.practice.blog.config.VersionConflictException;
+import com.cognizant.practice.blog.live.service.LiveUpdateService;
+import com.cognizant.practice.blog.search.service.ArticleSearchService;
+import com.cognizant.practice.blog.storage.service.BlobService;
+import com.cognizant.practice.blog.storage.service.ChunkedUploadService;
+import com.cognizant.practice.blog.storage.service.ImageVariantService;
+import com.cognizant.practice.blog.user.dto.Role;
+import com.cognizant.practice.blog.user.entity.UserEntity;
+import com.cognizant.practice.blog.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ArticlesServicePatchTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Principal EDITOR = () -> "omar";
+
+    ArticleRepository articleRepository;
+    ArticlesService articlesService;
+    ArticleEntity article;
+
+    @BeforeEach
+    void setUp() {
+        articleRepository = mock(ArticleRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        articlesService = new ArticlesService(articleRepository, userRepository, mock(ArticleSearchService.class),
+                mock(ArticleListCache.class), mock(ArticleCache.class), mock(ArticleCountCache.class), mock(ArticleFacetService.class),
+                mock(BlobService.class), mock(ImageVariantService.class), mock(ChunkedUploadService.class),
+                mock(ArticleViewService.class), mock(ArticleTrendingService.class), mock(LiveUpdateService.class), new BackgroundJobs());
+
+        UserEntity author = UserEntity.builder().id(UUID.randomUUID()).username("lila").role(Role.ROLE_AUTHOR).build();
+        article = ArticleEntity.builder().id(UUID.randomUUID()).title("Title").category("Travel").content("Hello world")
+                .summary("Hello world").createdDate(LocalDateTime.now()).updatedDate(LocalDateTime.now())
+                .author(author).editor(author).version(3L).build();
+        when(articleRepository.findById(article.getId())).thenReturn(Optional.of(article));
+        when(articleRepository.save(any(ArticleEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.findByUsername("omar")).thenReturn(Optional.of(UserEntity.builder().username("omar").build()));
+    }
+
+    @Test
+    void shouldNotWritePatchThatChangesNothing() {
+        Article result = articlesService.patchArticle(article.getId(), patch("{\"title\": \"Title\", \"category\": \"Travel\"}"), null, EDITOR);
+
+        assertEquals(3L, result.getVersion());
+        verify(articleRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldClearNullMemberAndKeepAbsentOnes() {
+        articlesService.patchArticle(article.getId(), patch("{\"category\": null}"), null, EDITOR);
+
+        assertNull(article.getCategory());
+        assertEquals("Title", article.getTitle());
+        assertEquals("Hello world", article.getContent());
+        assertEquals("omar", article.getEditor().getUsername());
+        verify(articleRepository).save(article);
+    }
+
+    @Test
+    void shouldApplyContentEditsAgainstTheMatchingVersion() {
+        articlesService.patchArticle(article.getId(), patch("{\"contentEdits\": [{\"at\": 5, \"insert\": \",\"}, {\"at\": 12, \"insert\": \"!\"}]}"), 3L, EDITOR);
+
+        assertEquals("Hello, world!", article.getContent());
+        assertEquals("Hello, world!", article.getSummary());
+    }
+
+    @Test
+    void shouldRejectContentEditsWithoutOrAgainstAnotherVersion() {
+        ArticlePatch edits = patch("{\"contentEdits\": [{\"at\": 0, \"insert\": \"x\"}]}");
+
+        ResponseStatusException missing = assertThrows(ResponseStatusException.class,
+                () -> articlesService.patchArticle(article.getId(), edits, null, EDITOR));
+        VersionConflictException stale = assertThrows(VersionConflictException.class,
+                () -> articlesService.patchArticle(article.getId(), edits, 2L, EDITOR));
+
+        assertEquals(HttpStatus.PRECONDITION_REQUIRED, missing.getStatusCode());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, stale.getStatusCode());
+        verify(articleRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRejectContentEditsOutOfRange() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> articlesService.patchArticle(article.getId(),
+                patch("{\"contentEdits\": [{\"at\": 20, \"insert\": \"x\"}]}"), 3L, EDITOR));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+        assertEquals("Hello world", article.getContent());
+    }
+
+    private static ArticlePatch patch(String body) {
+        try {
+            return ArticlePatch.from(MAPPER.readTree(body));
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.cognizant.practice.blog.article.service;
+
+import com.cognizant.practice.blog.article.repository.ArticleRepository;
+import com.cognizant.practice.blog.config.BackgroundJobs;
+import com.cognizant.practice.blog.live.service.LiveUpdateService;
+import com.cognizant.practice.blog.search.service.ArticleSearchService;
+import com.cognizant.practice.blog.storage.service.BlobService;
+import com.cognizant.practice.blog.storage.service.ChunkedUploadService;
+import com.cognizant.practice.blog.storage.service.ImageVariantService;
+import com.cognizant.practice.blog.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ArticlesServiceSummaryTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    ArticlesService articlesService = new ArticlesService(mock(ArticleRepository.class), mock(UserRepository.class), mock(ArticleSearchService.class),
+            mock(ArticleListCache.class), mock(ArticleCache.class), mock(ArticleCountCache.class), mock(ArticleFacetService.class),
+            mock(BlobService.class), mock(ImageVariantService.class), mock(ChunkedUploadService.class),
+            mock(ArticleViewService.class), mock(ArticleTrendingService.class), mock(LiveUpdateService.class), new BackgroundJobs());
+
+    @Test
+    void shouldCutOversizedFirstParagraphAtWordBoundary() throws Exception {
+        String words = "lorem ipsum ".repeat(100);
+        String content = document(paragraph(words.substring(0, 600), "bold tail")).toString();
+
+        JsonNode summary = MAPPER.readTree(articlesService.summarize(content));
+
+        JsonNode blocks = summary.get("root").get("children");
+        assertEquals(1, blocks.size());
+        assertEquals("paragraph", blocks.get(0).get("type").asText());
+        assertEquals(1, blocks.get(0).get("children").size());
+        String text = blocks.get(0).get("children").get(0).get("text").asText();
+        assertTrue(text.length() <= 500);
+        assertTrue(words.startsWith(text + " "));
+    }
+
+    @Test
+    void shouldKeepWholeBlocksAndCutTheOneCrossingTheLimit() throws Exception {
+        String first = "a".repeat(300);
+        String content = document(paragraph(first), paragraph("second " + "b".repeat(250)), paragraph("third")).toString();
+
+        JsonNode blocks = MAPPER.readTree(articlesService.summarize(content)).get("root").get("children");
+
+        assertEquals(2, blocks.size());
+        assertEquals(first, blocks.get(0).get("children").get(0).get("text").asText());
+        assertEquals("second", blocks.get(1).get("children").get(0).get("text").asText());
+    }
+
+    @Test
+    void shouldKeepShortDocumentUnchanged() throws Exception {
+        ObjectNode document = document(paragraph("Hello", " world"), paragraph("Bye"));
+
+        assertEquals(document, MAPPER.readTree(articlesService.summarize(document.toString())));
+    }
+
+    private static ObjectNode document(ObjectNode... blocks) {
+        ObjectNode document = MAPPER.createObjectNode();
+        document.putObject("root").put("type", "root").putArray("children").addAll(List.of(blocks));
+        return document;
+    }
+
+    private static ObjectNode paragraph(String... texts) {
+        ObjectNode paragraph = MAPPER.createObjectNode().put("type", "paragraph");
+        ArrayNode children = paragraph.putArray("children");
+        for (String text : texts) {
+            children.addObject().put("type", "text").put("text", text);
+        }
+        return paragraph;
+    }
+}
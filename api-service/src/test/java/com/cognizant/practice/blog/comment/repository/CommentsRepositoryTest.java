@@ -0,0 +1,134 @@
+package com.cognizant.practice.blog.comment.repository;
+
+import com.cognizant.practice.blog.QueryBudget;
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.comment.convertor.CommentConvertor;
+import com.cognizant.practice.blog.comment.dto.Comment;
+import com.cognizant.practice.blog.comment.dto.CommentArticle;
+import com.cognizant.practice.blog.comment.dto.CommentCursor;
+import com.cognizant.practice.blog.comment.dto.CommentFeedFilter;
+import com.cognizant.practice.blog.comment.dto.CommentFeedItem;
+import com.cognizant.practice.blog.comment.dto.CommentsVersion;
+import com.cognizant.practice.blog.comment.entity.CommentEntity;
+import com.cognizant.practice.blog.user.dto.Role;
+import com.cognizant.practice.blog.user.entity.UserEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class CommentsRepositoryTest {
+    private static final int COMMENTS = 8;
+
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    CommentsRepository commentsRepository;
+
+    QueryBudget queryBudget;
+    UUID articleId;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity writer = entityManager.persist(UserEntity.builder().username("writer").role(Role.ROLE_AUTHOR).createdDate(LocalDateTime.now()).build());
+        ArticleEntity article = entityManager.persist(ArticleEntity.builder().title("title").content("content").summary("content")
+                .createdDate(LocalDateTime.now()).updatedDate(LocalDateTime.now())
+                .mediaUrls(new ArrayList<>()).author(writer).editor(writer).build());
+        articleId = article.getId();
+
+        for (int i = 0; i < COMMENTS; i++) {
+            UserEntity reader = entityManager.persist(UserEntity.builder().username("reader" + i).role(Role.ROLE_USER).createdDate(LocalDateTime.now()).build());
+            entityManager.persist(CommentEntity.builder().content("comment" + i).dateCreated(LocalDateTime.now().plusMinutes(i))
+                    .dateEdited(LocalDateTime.now()).articleEntity(article).author(reader).editor(reader).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        queryBudget = new QueryBudget(entityManagerFactory);
+        queryBudget.reset();
+    }
+
+    @Test
+    void shouldLoadCommentsByArticleInOneQuery() {
+        CommentArticle article = new CommentArticle(articleId, "title");
+        List<Comment> comments = commentsRepository.findAllByArticleEntityIdOrderByDateCreatedAsc(articleId)
+                .stream().map(comment -> CommentConvertor.toDto(comment, article)).collect(Collectors.toList());
+
+        assertEquals(COMMENTS, comments.size());
+        assertEquals("comment0", comments.getFirst().getContent());
+        assertEquals("reader0", comments.getFirst().getAuthor().getUsername());
+        queryBudget.assertAtMost(1);
+    }
+
+    @Test
+    void shouldPageCommentsByArticleWithoutGapsOrRepeats() {
+        List<CommentEntity> first = commentsRepository.findByArticleEntityIdOrderByDateCreatedAscIdAsc(articleId, Limit.of(3));
+        CommentEntity last = first.getLast();
+        List<CommentEntity> second = commentsRepository.findPageAfter(articleId, last.getDateCreated(), last.getId(), Limit.of(COMMENTS));
+
+        assertEquals(List.of("comment0", "comment1", "comment2"), first.stream().map(CommentEntity::getContent).toList());
+        assertEquals(COMMENTS - 3, second.size());
+        assertEquals("comment3", second.getFirst().getContent());
+        queryBudget.assertAtMost(2);
+    }
+
+    @Test
+    void shouldPageFilteredFeedNewestFirstInOneQueryPerPage() {
+        CommentFeedFilter filter = new CommentFeedFilter(articleId, null, null, null, "COMMENT");
+        List<CommentFeedItem> first = commentsRepository.findFeed(filter, null, 5);
+        CommentFeedItem last = first.getLast();
+        List<CommentFeedItem> second = commentsRepository.findFeed(filter, new CommentCursor(last.getDateCreated(), last.getId()), 5);
+
+        assertEquals("comment7", first.getFirst().getContent());
+        assertEquals("title", first.getFirst().getArticleTitle());
+        assertEquals("reader7", first.getFirst().getAuthorUsername());
+        assertEquals("reader7", first.getFirst().getEditorUsername());
+        assertEquals(COMMENTS - 5, second.size());
+        assertEquals("comment0", second.getLast().getContent());
+        queryBudget.assertAtMost(2);
+    }
+
+    @Test
+    void shouldFilterFeedByAuthor() {
+        List<CommentFeedItem> comments = commentsRepository.findFeed(new CommentFeedFilter(null, "Reader3", null, null, null), null, 10);
+
+        assertEquals(1, comments.size());
+        assertEquals("comment3", comments.getFirst().getContent());
+    }
+
+    @Test
+    void shouldLoadOneCommentWithArticleAndUsersInOneQuery() {
+        UUID commentId = commentsRepository.findFeed(new CommentFeedFilter(null, "reader3", null, null, null), null, 1).getFirst().getId();
+        queryBudget.reset();
+
+        Comment comment = commentsRepository.findById(commentId).map(CommentConvertor::toDto).orElseThrow();
+
+        assertEquals("comment3", comment.getContent());
+        assertEquals("title", comment.getArticle().title());
+        assertEquals("reader3", comment.getEditor().getUsername());
+        queryBudget.assertAtMost(1);
+    }
+
+    @Test
+    void shouldLoadCommentsVersionInOneQuery() {
+        CommentsVersion version = commentsRepository.findCommentsVersionByArticleId(articleId);
+
+        assertEquals(COMMENTS, version.count());
+        assertNotNull(version.lastEdited());
+        queryBudget.assertAtMost(1);
+    }
+}
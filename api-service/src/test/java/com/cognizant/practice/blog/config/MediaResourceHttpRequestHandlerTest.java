@@ -0,0 +1,164 @@
+package com.cognizant.practice.blog.config;
+
+import com.cognizant.practice.blog.storage.service.ImageVariantService;
+import com.cognizant.practice.blog.storage.service.UploadStorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MediaResourceHttpRequestHandlerTest {
+    private static final String SOURCE = "a".repeat(64) + ".png";
+    private static final String VARIANT = SOURCE + "/card-full.jpg";
+
+    @TempDir
+    Path variants;
+
+    @TempDir
+    Path sources;
+
+    ImageVariantService imageVariantService;
+    MediaResourceHttpRequestHandler handler;
+    MockHttpServletRequest request;
+    MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        imageVariantService = mock(ImageVariantService.class);
+        handler = new MediaResourceHttpRequestHandler(true);
+        handler.setLocations(List.of(new FileSystemResource(variants.toString() + "/")));
+        handler.setResourceResolvers(List.of(new ImageVariantResourceResolver(imageVariantService), new PathResourceResolver()));
+        handler.setServletContext(new MockServletContext());
+        handler.afterPropertiesSet();
+
+        request = new MockHttpServletRequest("GET", "/image-variants/" + VARIANT);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, VARIANT);
+        response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldCacheRenderedVariantForGood() throws Exception {
+        write(variants.resolve(VARIANT), 1000);
+
+        handler.handleRequest(request, response);
+
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+    }
+
+    @Test
+    void shouldRevalidateOriginalServedInPlaceOfMissingVariant() throws Exception {
+        Path original = write(sources.resolve(SOURCE), 1000);
+        when(imageVariantService.source(UploadStorageService.ARTICLE_IMAGES, SOURCE)).thenReturn(Optional.of(new FileSystemResource(original)));
+
+        handler.handleRequest(request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("no-cache, public", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertArrayEquals(Files.readAllBytes(original), response.getContentAsByteArray());
+    }
+
+    @Test
+    void shouldHandWholeFileToSendfile() throws Exception {
+        Path variant = write(variants.resolve(VARIANT), 100_000);
+        request.setAttribute("org.apache.tomcat.sendfile.support", true);
+
+        handler.handleRequest(request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(100_000, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(variant.toFile().getAbsolutePath(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(0L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(100_000L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+
+    @Test
+    void shouldHandSingleRangeToSendfileWithRangeHeaders() throws Exception {
+        write(variants.resolve(VARIANT), 100_000);
+        request.setAttribute("org.apache.tomcat.sendfile.support", true);
+        request.addHeader(HttpHeaders.RANGE, "bytes=1000-60999");
+
+        handler.handleRequest(request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 1000-60999/100000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(60_000, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(1000L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(61_000L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+
+    @Test
+    void shouldClampOpenEndedRangeToFileLength() throws Exception {
+        write(variants.resolve(VARIANT), 100_000);
+        request.setAttribute("org.apache.tomcat.sendfile.support", true);
+        request.addHeader(HttpHeaders.RANGE, "bytes=50000-");
+
+        handler.handleRequest(request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 50000-99999/100000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(50_000, response.getContentLengthLong());
+        assertEquals(100_000L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+
+    @Test
+    void shouldCopySmallRangeWithoutSendfile() throws Exception {
+        Path variant = write(variants.resolve(VARIANT), 100_000);
+        request.setAttribute("org.apache.tomcat.sendfile.support", true);
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-19");
+
+        handler.handleRequest(request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 10-19/100000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        byte[] expected = new byte[10];
+        System.arraycopy(Files.readAllBytes(variant), 10, expected, 0, 10);
+        assertArrayEquals(expected, response.getContentAsByteArray());
+        assertNull(request.getAttribute("org.apache.tomcat.sendfile.filename"));
+    }
+
+    @Test
+    void shouldStreamWhenContainerHasNoSendfile() throws Exception {
+        write(variants.resolve(VARIANT), 100_000);
+
+        handler.handleRequest(request, response);
+
+        assertEquals(100_000, response.getContentAsByteArray().length);
+        assertNull(request.getAttribute("org.apache.tomcat.sendfile.filename"));
+    }
+
+    private static Path write(Path file, int length) throws Exception {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) i;
+        }
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content);
+    }
+}
@@ -0,0 +1,231 @@
+package com.cognizant.practice.blog.live.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveUpdateServiceTest {
+    private static final UUID ARTICLE = UUID.randomUUID();
+
+    SimpleMeterRegistry registry;
+    Deque<StubEmitter> emitters;
+    LiveUpdateService liveUpdateService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        emitters = new ArrayDeque<>();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        emitters.forEach(StubEmitter::release);
+        liveUpdateService.close();
+    }
+
+    @Test
+    void shouldDisconnectSubscriberWhoseBufferOverflows() throws InterruptedException {
+        liveUpdateService = service(2, 10);
+        StubEmitter slow = subscribe(new StubEmitter(true));
+        StubEmitter fast = subscribe(new StubEmitter(false));
+
+        liveUpdateService.commentDeleted(ARTICLE, UUID.randomUUID());
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+        // The first event is stuck on the socket, two more fill the buffer and the fourth overflows it
+        for (int i = 1; i <= 3; i++) {
+            int received = i;
+            await(() -> fast.sent().size() == received);
+            liveUpdateService.commentDeleted(ARTICLE, UUID.randomUUID());
+        }
+
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, registry.get("blog.live.slow-disconnects").counter().count());
+        assertEquals(1, subscribers());
+
+        slow.release();
+        await(() -> fast.sent().size() == 4);
+        liveUpdateService.commentDeleted(ARTICLE, UUID.randomUUID());
+        await(() -> fast.sent().size() == 5);
+        await(() -> slow.sent().size() == 1);
+        assertEquals(1, registry.get("blog.live.slow-disconnects").counter().count());
+    }
+
+    @Test
+    void shouldSendQueuedEventsBeforeCompletingOnClose() throws InterruptedException {
+        liveUpdateService = service(10, 10);
+        StubEmitter emitter = subscribe(new StubEmitter(true));
+        liveUpdateService.commentDeleted(ARTICLE, UUID.randomUUID());
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+        liveUpdateService.commentDeleted(ARTICLE, UUID.randomUUID());
+        liveUpdateService.commentDeleted(ARTICLE, UUID.randomUUID());
+
+        Thread closing = Thread.ofPlatform().start(() -> {
+            try {
+                liveUpdateService.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        await(() -> closing.getState() == Thread.State.TIMED_WAITING);
+        assertEquals(1, emitter.completed.getCount());
+
+        emitter.release();
+        closing.join(5000);
+
+        assertEquals(0, emitter.completed.getCount());
+        assertEquals(3, emitter.sentBeforeCompletion);
+        assertEquals(0, subscribers());
+    }
+
+    @Test
+    void shouldCountSubscribersAfterTimeoutsAndErrors() {
+        liveUpdateService = service(10, 3);
+        StubEmitter timedOut = subscribe(new StubEmitter(false));
+        StubEmitter failed = subscribe(new StubEmitter(false));
+        StubEmitter broken = subscribe(new StubEmitter(false));
+        assertEquals(3, subscribers());
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> liveUpdateService.subscribeFeed());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        assertEquals(3, subscribers());
+
+        timedOut.timeout();
+        assertEquals(0, timedOut.completed.getCount());
+        assertEquals(2, subscribers());
+
+        failed.error(new IOException("Broken pipe"));
+        failed.error(new IOException("Broken pipe"));
+        failed.complete();
+        assertEquals(1, subscribers());
+
+        broken.failure = new IOException("Connection reset");
+        liveUpdateService.commentDeleted(ARTICLE, UUID.randomUUID());
+        await(() -> subscribers() == 0);
+
+        subscribe(new StubEmitter(false));
+        subscribe(new StubEmitter(false));
+        subscribe(new StubEmitter(false));
+        assertThrows(ResponseStatusException.class, () -> liveUpdateService.subscribeFeed());
+        assertEquals(3, subscribers());
+    }
+
+    private LiveUpdateService service(int bufferSize, int maxSubscribers) {
+        return new LiveUpdateService(new ObjectMapper(), registry, bufferSize, 60_000, maxSubscribers) {
+            @Override
+            SseEmitter newEmitter(long timeout) {
+                return emitters.getLast();
+            }
+        };
+    }
+
+    private StubEmitter subscribe(StubEmitter emitter) {
+        emitters.add(emitter);
+        assertSame(emitter, liveUpdateService.subscribeArticle(ARTICLE));
+        return emitter;
+    }
+
+    private double subscribers() {
+        return registry.get("blog.live.subscribers").gauge().value();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting");
+            Thread.onSpinWait();
+        }
+    }
+
+    // Records what the service writes and stands in for the container firing the callbacks
+    private static final class StubEmitter extends SseEmitter {
+        private final List<Set<DataWithMediaType>> sent = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch blocked;
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+        volatile IOException failure;
+        volatile int sentBeforeCompletion = -1;
+
+        private Runnable timeoutCallback = () -> {
+        };
+        private Consumer<Throwable> errorCallback = e -> {
+        };
+        private Runnable completionCallback = () -> {
+        };
+
+        StubEmitter(boolean blocking) {
+            this.blocked = new CountDownLatch(blocking ? 1 : 0);
+        }
+
+        List<Set<DataWithMediaType>> sent() {
+            return sent;
+        }
+
+        void release() {
+            blocked.countDown();
+        }
+
+        void timeout() {
+            timeoutCallback.run();
+        }
+
+        void error(Throwable e) {
+            errorCallback.accept(e);
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            sending.countDown();
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            sent.add(items);
+        }
+
+        @Override
+        public void complete() {
+            sentBeforeCompletion = sent.size();
+            completed.countDown();
+            completionCallback.run();
+        }
+
+        @Override
+        public void onTimeout(Runnable callback) {
+            timeoutCallback = callback;
+        }
+
+        @Override
+        public void onError(Consumer<Throwable> callback) {
+            errorCallback = callback;
+        }
+
+        @Override
+        public void onCompletion(Runnable callback) {
+            completionCallback = callback;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.cognizant.practice.blog.search.service;
+
+import com.cognizant.practice.blog.article.entity.ArticleEntity;
+import com.cognizant.practice.blog.article.repository.ArticleRepository;
+import com.cognizant.practice.blog.config.BackgroundJobs;
+import com.cognizant.practice.blog.search.dto.ArticleSearchHit;
+import com.cognizant.practice.blog.search.dto.ArticleSearchResult;
+import com.cognizant.practice.blog.user.dto.Role;
+import com.cognizant.practice.blog.user.entity.UserEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ArticleSearchServiceTest {
+    private static final String LEXICAL = """
+            {"root":{"children":[{"type":"paragraph","children":[{"type":"text","text":"Dragons guard the northern pass"}]}]}}""";
+
+    @TempDir
+    Path indexDir;
+
+    ArticleRepository articleRepository;
+    ArticleSearchService searchService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        articleRepository = mock(ArticleRepository.class);
+        searchService = new ArticleSearchService(articleRepository, new BackgroundJobs(), indexDir.toString(), 2);
+        searchService.open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        searchService.close();
+    }
+
+    @Test
+    void shouldFindIndexedArticleByLexicalTextWithoutCommit() {
+        ArticleEntity article = article("Travel notes", LEXICAL);
+        searchService.index(article);
+
+        ArticleSearchResult result = searchService.search("dragons", 10, 0);
+
+        assertEquals(1, result.getTotalHits());
+        ArticleSearchHit hit = result.getHits().getFirst();
+        assertEquals(article.getId(), hit.getId());
+        assertEquals("lila", hit.getAuthorUsername());
+        assertTrue(hit.getContentHighlight().contains("Dragons"));
+    }
+
+    @Test
+    void shouldReplaceAndRemoveDocuments() {
+        ArticleEntity article = article("First title", "plain words");
+        searchService.index(article);
+        article.setTitle("Second title");
+        searchService.index(article);
+
+        assertEquals(0, searchService.search("first", 10, 0).getTotalHits());
+        assertEquals(1, searchService.search("second", 10, 0).getTotalHits());
+
+        searchService.delete(article.getId());
+
+        assertEquals(0, searchService.search("second", 10, 0).getTotalHits());
+    }
+
+    @Test
+    void shouldSearchLiterallyWhenQueryDoesNotParse() {
+        searchService.index(article("Quoted", "an \"unbalanced quote here"));
+
+        assertEquals(1, searchService.search("\"unbalanced", 10, 0).getTotalHits());
+        assertEquals(1, searchService.search("quote AND", 10, 0).getTotalHits());
+    }
+
+    @Test
+    void shouldRejectEmptyQueriesAndPages() {
+        assertThrows(ResponseStatusException.class, () -> searchService.search(" ", 10, 0));
+        assertThrows(ResponseStatusException.class, () -> searchService.search("dragons", 0, 0));
+    }
+
+    @Test
+    void shouldPageThroughSearchResults() {
+        for (int i = 0; i < 5; i++) {
+            searchService.index(article("Dragon " + i, "dragon"));
+        }
+
+        assertEquals(2, searchService.search("dragon", 2, 1).getHits().size());
+        assertEquals(1, searchService.search("dragon", 2, 2).getHits().size());
+        assertEquals(0, searchService.search("dragon", 2, 3).getHits().size());
+    }
+
+    @Test
+    void shouldExtractTextFromLexicalAndHtml() {
+        assertEquals("Dragons guard the northern pass", searchService.plainText(LEXICAL));
+        assertEquals("Bold words", searchService.plainText("<p><b>Bold</b> words</p>"));
+        assertEquals("", searchService.plainText(null));
+    }
+
+    @Test
+    void shouldRebuildInBatchesSeekingPastTheLastId() {
+        List<ArticleEntity> articles = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            articles.add(article("Chronicle " + i, "chronicle"));
+        }
+        articles.sort((a, b) -> a.getId().compareTo(b.getId()));
+        when(articleRepository.findBatchAfter(isNull(), eq(2))).thenReturn(articles.subList(0, 2));
+        when(articleRepository.findBatchAfter(eq(articles.get(1).getId()), eq(2))).thenReturn(articles.subList(2, 4));
+        when(articleRepository.findBatchAfter(eq(articles.get(3).getId()), eq(2))).thenReturn(articles.subList(4, 5));
+        searchService.index(article("Stale", "stale"));
+
+        searchService.reindexAll();
+
+        assertEquals(5, searchService.search("chronicle", 10, 0).getTotalHits());
+        assertEquals(0, searchService.search("stale", 10, 0).getTotalHits());
+        verify(articleRepository).findBatchAfter(eq(articles.get(3).getId()), any(Integer.class));
+    }
+
+    @Test
+    void shouldReindexArticlesOfRenamedAuthor() throws InterruptedException {
+        ArticleEntity first = article("Mountain diary", "mountain");
+        ArticleEntity second = article("Valley diary", "valley");
+        second.setAuthor(first.getAuthor());
+        searchService.indexAll(List.of(first, second));
+        UUID authorId = first.getAuthor().getId();
+        first.getAuthor().setUsername("marta");
+        List<ArticleEntity> articles = new ArrayList<>(List.of(first, second));
+        articles.sort((a, b) -> a.getId().compareTo(b.getId()));
+        when(articleRepository.findBatchByAuthorAfter(eq(authorId), isNull(), eq(2))).thenReturn(articles);
+        when(articleRepository.findBatchByAuthorAfter(eq(authorId), eq(articles.get(1).getId()), eq(2))).thenReturn(List.of());
+
+        searchService.authorRenamed(authorId);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (searchService.search("marta", 10, 0).getTotalHits() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, searchService.search("marta", 10, 0).getTotalHits());
+        assertEquals(0, searchService.search("lila", 10, 0).getTotalHits());
+    }
+
+    @Test
+    void shouldKeepCommittedDocumentsAcrossReopen() throws IOException {
+        searchService.index(article("Durable", "durable"));
+        searchService.commitChanges();
+        searchService.close();
+
+        searchService = new ArticleSearchService(articleRepository, new BackgroundJobs(), indexDir.toString(), 2);
+        searchService.open();
+
+        assertEquals(1, searchService.search("durable", 10, 0).getTotalHits());
+    }
+
+    private static ArticleEntity article(String title, String content) {
+        UserEntity author = UserEntity.builder().id(UUID.randomUUID()).username("lila").role(Role.ROLE_AUTHOR).build();
+        return ArticleEntity.builder().id(UUID.randomUUID()).title(title).content(content).summary(content)
+                .createdDate(LocalDateTime.now()).updatedDate(LocalDateTime.now()).author(author).editor(author).build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.cognizant.practice.blog.storage.repository;
+
+import com.cognizant.practice.blog.storage.entity.BlobEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class BlobRepositoryTest {
+    private static final String HASH = "a".repeat(64);
+
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    BlobRepository blobRepository;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(new BlobEntity(HASH, 10, 1, LocalDateTime.now()));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void shouldNotRetainUnknownBlob() {
+        assertEquals(0, blobRepository.retain("b".repeat(64)));
+    }
+
+    @Test
+    void shouldKeepBlobWhileReferenced() {
+        assertEquals(1, blobRepository.retain(HASH));
+        blobRepository.release(HASH);
+
+        assertEquals(0, blobRepository.deleteIfUnreferenced(HASH));
+        entityManager.clear();
+        assertEquals(1, blobRepository.findById(HASH).orElseThrow().getReferenceCount());
+    }
+
+    @Test
+    void shouldDeleteBlobWithLastReference() {
+        blobRepository.release(HASH);
+
+        assertEquals(1, blobRepository.deleteIfUnreferenced(HASH));
+        assertTrue(blobRepository.findById(HASH).isEmpty());
+    }
+
+    @Test
+    void shouldNotReleaseBelowZero() {
+        blobRepository.release(HASH);
+
+        assertEquals(0, blobRepository.release(HASH));
+    }
+}
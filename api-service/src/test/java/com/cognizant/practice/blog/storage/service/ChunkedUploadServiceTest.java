@@ -0,0 +1,123 @@
+package com.cognizant.practice.blog.storage.service;
+
+import com.cognizant.practice.blog.storage.dto.UploadInitRequest;
+import com.cognizant.practice.blog.storage.dto.UploadSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChunkedUploadServiceTest {
+    private static final UUID OWNER = UUID.randomUUID();
+    private static final String USERNAME = "lila";
+
+    @TempDir
+    Path incoming;
+
+    ChunkedUploadService uploadService;
+
+    @BeforeEach
+    void setUp() {
+        UploadStorageService uploadStorageService = mock(UploadStorageService.class);
+        when(uploadStorageService.resolve(eq(UploadStorageService.INCOMING), any()))
+                .thenAnswer(invocation -> incoming.resolve(invocation.<String>getArgument(1)));
+        uploadService = new ChunkedUploadService(uploadStorageService, mock(BlobService.class), 60);
+        ReflectionTestUtils.setField(uploadService, "chunkSize", 4L);
+        ReflectionTestUtils.setField(uploadService, "maxSize", 1024L);
+    }
+
+    @Test
+    void shouldCountOnlyChunksWithMatchingChecksum() {
+        UploadSession session = uploadService.start(OWNER, USERNAME, new UploadInitRequest("notes.txt", 8L, null));
+
+        uploadService.writeChunk(session.getId(), OWNER, USERNAME, 0, sha256("abcd"), stream("abcd"));
+        ResponseStatusException mismatch = assertThrows(ResponseStatusException.class,
+                () -> uploadService.writeChunk(session.getId(), OWNER, USERNAME, 4, sha256("efgh"), stream("efgX")));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, mismatch.getStatusCode());
+        assertEquals(List.of(4L), uploadService.status(session.getId(), OWNER, USERNAME).getMissingOffsets());
+    }
+
+    @Test
+    void shouldForgetReceivedChunkWhenRewriteFails() {
+        UploadSession session = uploadService.start(OWNER, USERNAME, new UploadInitRequest("notes.txt", 8L, null));
+        uploadService.writeChunk(session.getId(), OWNER, USERNAME, 0, sha256("abcd"), stream("abcd"));
+
+        assertThrows(ResponseStatusException.class,
+                () -> uploadService.writeChunk(session.getId(), OWNER, USERNAME, 0, sha256("abcd"), stream("ab")));
+
+        assertEquals(List.of(0L, 4L), uploadService.status(session.getId(), OWNER, USERNAME).getMissingOffsets());
+    }
+
+    @Test
+    void shouldRejectCompleteAndSecondWriteWhileChunkIsBeingWritten() throws Exception {
+        UploadSession session = uploadService.start(OWNER, USERNAME, new UploadInitRequest("notes.txt", 4L, null));
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream slowBody = new InputStream() {
+            private final InputStream bytes = stream("abcd");
+
+            @Override
+            public int read() throws IOException {
+                return bytes.read();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                reading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return bytes.read(buffer, offset, length);
+            }
+        };
+
+        CompletableFuture<UploadSession> write = CompletableFuture.supplyAsync(
+                () -> uploadService.writeChunk(session.getId(), OWNER, USERNAME, 0, sha256("abcd"), slowBody));
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+        ResponseStatusException complete = assertThrows(ResponseStatusException.class,
+                () -> uploadService.complete(session.getId(), OWNER, USERNAME));
+        ResponseStatusException secondWrite = assertThrows(ResponseStatusException.class,
+                () -> uploadService.writeChunk(session.getId(), OWNER, USERNAME, 0, sha256("abcd"), stream("abcd")));
+        release.countDown();
+
+        assertEquals(HttpStatus.CONFLICT, complete.getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, secondWrite.getStatusCode());
+        assertTrue(write.get(5, TimeUnit.SECONDS).isComplete());
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes());
+    }
+
+    private static String sha256(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes()));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,4 +1,4 @@
-import { Comment, ApiError } from './types';
+import { Comment, CommentFeedPage, CommentFeedParams, ApiError } from './types';
 
 function parseSpringError(res: Response, errorData: ApiError): string {
     return errorData?.detail || errorData?.message || res.statusText || 'Unknown error';
@@ -21,8 +21,18 @@ export async function createComment(id: string, token: string, content: string):
     return res.json();
 }
 
-export async function fetchAllComments(): Promise<Comment[]> {
-    const res = await fetch(`/api/comments`);
+// Admin only, the server answers 403 without an admin token. Newest first, one page per call.
+export async function fetchCommentFeed(token: string, { limit, after, articleId, author }: CommentFeedParams): Promise<CommentFeedPage> {
+    const params = new URLSearchParams({ limit: String(limit) });
+    if (after) params.append('after', after);
+    if (articleId) params.append('articleId', articleId);
+    if (author) params.append('author', author);
+
+    const res = await fetch(`/api/comments?${params.toString()}`, {
+        headers: {
+            'Authorization': `Bearer ${token}`
+        }
+    });
     if (!res.ok) {
         let errorData: ApiError = {};
         try { errorData = await res.json(); } catch {}
@@ -41,17 +51,19 @@ export async function fetchCommentsByArticleId(id: string): Promise<Comment[]> {
     return res.json();
 }
 
-export async function fetchCommentById(commentId: string): Promise<Comment> {
-    // Since we don't have a direct API to fetch a single comment by ID,
-    // we'll fetch all comments and find the one we want
-    const allComments = await fetchAllComments();
-    const foundComment = allComments.find(c => c.id === commentId);
-    
-    if (!foundComment) {
-        throw new Error('Comment not found');
+// Admin only, like the feed
+export async function fetchCommentById(commentId: string, token: string): Promise<Comment> {
+    const res = await fetch(`/api/comments/${commentId}`, {
+        headers: {
+            'Authorization': `Bearer ${token}`
+        }
+    });
+    if (!res.ok) {
+        let errorData: ApiError = {};
+        try { errorData = await res.json(); } catch {}
+        throw new Error(parseSpringError(res, errorData));
     }
-    
-    return foundComment;
+    return res.json();
 }
 
 export async function editComment(articleId: string, commentId: string, content: string, token: string): Promise<Comment> {
@@ -100,6 +100,33 @@ export interface Comment {
 	article?: Article;
 }
 
+// Row of the admin comment feed, GET /comments?limit=
+export interface CommentFeedItem {
+	id: string;
+	content: string;
+	dateCreated: string;
+	dateEdited?: string;
+	articleId: string;
+	articleTitle: string;
+	authorId?: string;
+	authorUsername?: string;
+	editorUsername?: string;
+}
+
+export interface CommentFeedPage {
+	comments: CommentFeedItem[];
+	hasNext: boolean;
+	// Pass back as "after" for the next page
+	nextCursor?: string;
+}
+
+export interface CommentFeedParams {
+	limit: number;
+	after?: string;
+	articleId?: string;
+	author?: string;
+}
+
 // User Management types
 export interface UserDetail {
 	id: string;
@@ -381,10 +381,10 @@ const AdminArticles: React.FC = () => {
 												<div className="font-medium truncate">
 													{article.title}
 												</div>
-												{article.content && (
+												{(article.summary || article.content) && (
 													<div className="text-sm text-muted-foreground line-clamp-2">
 														<LexicalContentRenderer 
-															content={extractSmartSummary(article.content || '')}
+															content={extractSmartSummary(article.summary || article.content || '')}
 															className="!border-none !bg-transparent !text-xs"
 														/>
 													</div>
@@ -79,7 +79,7 @@ const CommentForm: React.FC<CommentFormProps> = ({
         if (isEdit && finalId && !initialComment) {
             loadComment();
         }
-    }, [finalId, isEdit, initialComment]);
+    }, [finalId, isEdit, initialComment, token]);
 
     useEffect(() => {
         // Track if form has been modified
@@ -109,12 +109,12 @@ const CommentForm: React.FC<CommentFormProps> = ({
     };
 
     const loadComment = async (): Promise<void> => {
-        if (!finalId) return;
+        if (!finalId || !token) return;
         
         try {
             setLoading(true);
             setError(null);
-            const comment = await fetchCommentById(finalId);
+            const comment = await fetchCommentById(finalId, token);
             setValue('content', comment.content);
             setValue('articleId', comment.article?.id || '');
             
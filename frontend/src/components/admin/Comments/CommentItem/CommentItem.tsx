@@ -3,7 +3,7 @@ import { NavLink, useParams, useNavigate } from 'react-router';
 import { Comment, Article } from '../../../../api/types';
 import { useAuth } from '../../../../api/AuthContext';
 import { hasRole } from '../../../../api/AuthApi';
-import { deleteComment, fetchAllComments, fetchCommentsByArticleId } from '../../../../api/CommentApi';
+import { deleteComment, fetchCommentById, fetchCommentsByArticleId } from '../../../../api/CommentApi';
 import { fetchArticleById } from '../../../../api/ArticlesApi';
 
 import { Button } from '@/components/ui/button';
@@ -47,7 +47,7 @@ const CommentItem: React.FC<CommentItemProps> = ({
             setComment(propComment);
             setLoading(false);
         }
-    }, [id, propComment, useRouteParams]);
+    }, [id, propComment, useRouteParams, token]);
 
     // Load article details when comment is available
     useEffect(() => {
@@ -61,21 +61,12 @@ const CommentItem: React.FC<CommentItemProps> = ({
             navigate('/admin/comments');
             return;
         }
+        if (!token) return;
 
         try {
             setLoading(true);
             setError(null);
-            // Since we don't have a direct API to fetch a single comment by ID,
-            // we'll need to fetch all comments and find the one we want
-            // This is not ideal but works for the admin interface
-            const allComments = await fetchAllComments();
-            const foundComment = allComments.find(c => c.id === id);
-            
-            if (foundComment) {
-                setComment(foundComment);
-            } else {
-                setError('Comment not found');
-            }
+            setComment(await fetchCommentById(id, token));
         } catch (err) {
             const errorMessage = (err as Error).message || 'An error occurred';
             setError(errorMessage);
@@ -1,12 +1,11 @@
 import React, { useEffect, useState } from 'react';
 import { NavLink, useNavigate, useSearchParams } from 'react-router';
-import { fetchAllComments, fetchCommentsByArticleId, deleteComment } from '../../../api/CommentApi';
+import { fetchCommentFeed, deleteComment } from '../../../api/CommentApi';
 import { fetchAllArticles } from '../../../api/ArticlesApi';
 import { fetchUsers } from '../../../api/UsersApi';
 import { useAuth } from '../../../api/AuthContext';
 import { hasRole } from '../../../api/AuthApi';
-import { Comment, Article, UserDetail } from '../../../api/types';
-import CommentItem from './CommentItem/CommentItem';
+import { CommentFeedItem, Article, UserDetail } from '../../../api/types';
 import LexicalContentRenderer from '../../ui/LexicalContentRenderer';
 
 import { Button } from '@/components/ui/button';
@@ -30,8 +29,8 @@ import {
 import { Badge } from '@/components/ui/badge';
 
 interface CommentsProps {
-    onEdit?: (comment: Comment) => void;
-    onView?: (comment: Comment) => void;
+    onEdit?: (comment: CommentFeedItem) => void;
+    onView?: (comment: CommentFeedItem) => void;
     filterByArticleId?: string;
 }
 
@@ -41,7 +40,7 @@ const Comments: React.FC<CommentsProps> = ({
     filterByArticleId
 }) => {
     const [searchParams] = useSearchParams();
-    const [comments, setComments] = useState<Comment[]>([]);
+    const [comments, setComments] = useState<CommentFeedItem[]>([]);
     const [articles, setArticles] = useState<Article[]>([]);
     const [users, setUsers] = useState<UserDetail[]>([]);
     const [loading, setLoading] = useState<boolean>(true);
@@ -49,6 +48,9 @@ const Comments: React.FC<CommentsProps> = ({
     const [authorFilter, setAuthorFilter] = useState<string>('');
     const [showBottomBar, setShowBottomBar] = useState<boolean>(false);
     const [currentPage, setCurrentPage] = useState<number>(0);
+    // cursors[n] is the "after" of page n, pages are fetched by seeking instead of by offset
+    const [cursors, setCursors] = useState<(string | undefined)[]>([undefined]);
+    const [hasNext, setHasNext] = useState<boolean>(false);
     const pageSize = 20;
     
     const { token, currentUser } = useAuth();
@@ -70,7 +72,7 @@ const Comments: React.FC<CommentsProps> = ({
 
     useEffect(() => {
         loadComments();
-    }, [selectedArticleId, authorFilter, currentPage]);
+    }, [selectedArticleId, authorFilter, currentPage, token]);
 
     useEffect(() => {
         const observer = new IntersectionObserver(
@@ -114,27 +116,18 @@ const Comments: React.FC<CommentsProps> = ({
     };
 
     const loadComments = async (): Promise<void> => {
+        if (!token) return;
         try {
             setLoading(true);
-            let commentsData: Comment[];
-            
-            if (selectedArticleId) {
-                commentsData = await fetchCommentsByArticleId(selectedArticleId);
-            } else {
-                commentsData = await fetchAllComments();
-            }
-            
-            // Filter by author if specified
-            if (authorFilter) {
-                commentsData = commentsData.filter(comment => 
-                    comment.author?.username?.toLowerCase().includes(authorFilter.toLowerCase())
-                );
-            }
-            
-            const startIndex = currentPage * pageSize;
-            const endIndex = startIndex + pageSize;
-            setComments(commentsData.slice(startIndex, endIndex));
-            
+            const page = await fetchCommentFeed(token, {
+                limit: pageSize,
+                after: cursors[currentPage],
+                articleId: selectedArticleId || undefined,
+                author: authorFilter || undefined
+            });
+            setComments(page.comments);
+            setHasNext(page.hasNext);
+            setCursors(previous => [...previous.slice(0, currentPage + 1), page.nextCursor]);
         } catch (err) {
             const errorMessage = (err as Error).message || 'An error occurred';
             if (errorMessage.toLowerCase().includes('forbidden')) {
@@ -149,11 +142,11 @@ const Comments: React.FC<CommentsProps> = ({
         }
     };
 
-    const handleDelete = async (comment: Comment): Promise<void> => {
+    const handleDelete = async (comment: CommentFeedItem): Promise<void> => {
         if (!window.confirm('Are you sure you want to delete this comment?') || !token) return;
 
         try {
-            await deleteComment(comment.article?.id!, comment.id!, token);
+            await deleteComment(comment.articleId, comment.id, token);
             await loadComments();
         } catch (err) {
             const errorMessage = (err as Error).message || 'An error occurred';
@@ -165,7 +158,7 @@ const Comments: React.FC<CommentsProps> = ({
         }
     };
 
-    const handleEdit = (comment: Comment): void => {
+    const handleEdit = (comment: CommentFeedItem): void => {
         if (onEdit) {
             onEdit(comment);
         } else {
@@ -173,7 +166,7 @@ const Comments: React.FC<CommentsProps> = ({
         }
     };
 
-    const handleView = (comment: Comment): void => {
+    const handleView = (comment: CommentFeedItem): void => {
         if (onView) {
             onView(comment);
         } else {
@@ -191,11 +184,14 @@ const Comments: React.FC<CommentsProps> = ({
     };
 
     const goToPrev = (): void => setCurrentPage(Math.max(0, currentPage - 1));
-    const goToNext = (): void => setCurrentPage(currentPage + 1);
+    const goToNext = (): void => {
+        if (hasNext) setCurrentPage(currentPage + 1);
+    };
 
-    const handlePageInput = (e: React.ChangeEvent<HTMLInputElement>): void => {
-        let val = parseInt(e.target.value, 10);
-        if (!isNaN(val) && val > 0) setCurrentPage(val - 1);
+    const changeFilter = (apply: () => void): void => {
+        apply();
+        setCursors([undefined]);
+        setCurrentPage(0);
     };
 
     if (loading) {
@@ -258,10 +254,7 @@ const Comments: React.FC<CommentsProps> = ({
                         <Combobox
                             options={articleOptions}
                             value={selectedArticleId}
-                            onValueChange={(value) => {
-                                setSelectedArticleId(value);
-                                setCurrentPage(0);
-                            }}
+                            onValueChange={(value) => changeFilter(() => setSelectedArticleId(value))}
                             placeholder="Select article..."
                             searchPlaceholder="Search articles..."
                             className="!w-full !border !border-[#dee2e6] !rounded-lg !p-[8px] !text-sm"
@@ -273,10 +266,7 @@ const Comments: React.FC<CommentsProps> = ({
                         <Combobox
                             options={authorOptions}
                             value={authorFilter}
-                            onValueChange={(value) => {
-                                setAuthorFilter(value);
-                                setCurrentPage(0);
-                            }}
+                            onValueChange={(value) => changeFilter(() => setAuthorFilter(value))}
                             placeholder="Select author..."
                             searchPlaceholder="Search authors..."
                             className="!w-full !border !border-[#dee2e6] !rounded-lg !p-[8px] !text-sm"
@@ -311,10 +301,10 @@ const Comments: React.FC<CommentsProps> = ({
                             </TableRow>
                         ) : (
                             comments.map((comment, idx) => {
-                                const createdAt = comment.dateCreated || comment.createdAt || '';
+                                const createdAt = comment.dateCreated;
                                 const updatedAt = comment.dateEdited || createdAt;
                                 const showEdited = (
-                                    comment.author?.username !== comment.editor?.username ||
+                                    comment.authorUsername !== comment.editorUsername ||
                                     formatDateTimeToMin(createdAt) !== formatDateTimeToMin(updatedAt)
                                 );
                                 
@@ -339,18 +329,18 @@ const Comments: React.FC<CommentsProps> = ({
                                         </TableCell>
                                         <TableCell>
                                             <NavLink 
-                                                to={`/admin/articles/${comment.article?.id}`}
+                                                to={`/admin/articles/${comment.articleId}`}
                                                 className="text-primary hover:underline font-medium"
                                             >
-                                                {comment.article?.title}
+                                                {comment.articleTitle}
                                             </NavLink>
                                         </TableCell>
                                         <TableCell>
                                             <NavLink 
-                                                to={`/admin/users/${comment.author?.id}`}
+                                                to={`/admin/users/${comment.authorId}`}
                                                 className="text-primary hover:underline"
                                             >
-                                                {comment.author?.username || 'Unknown'}
+                                                {comment.authorUsername || 'Unknown'}
                                             </NavLink>
                                         </TableCell>
                                         <TableCell className="text-sm text-muted-foreground">
@@ -363,7 +353,7 @@ const Comments: React.FC<CommentsProps> = ({
                                                         {formatDateTimeToMin(updatedAt)}
                                                     </div>
                                                     <Badge variant="outline" className="text-xs">
-                                                        by {comment.editor?.username}
+                                                        by {comment.editorUsername}
                                                     </Badge>
                                                 </div>
                                             ) : (
@@ -380,7 +370,7 @@ const Comments: React.FC<CommentsProps> = ({
                                                 >
                                                     View
                                                 </Button>
-                                                {(hasRole("ADMIN") || comment.author?.username === currentUser) && (
+                                                {(hasRole("ADMIN") || comment.authorUsername === currentUser) && (
                                                     <Button
                                                         onClick={() => handleEdit(comment)}
                                                         variant="default"
@@ -390,7 +380,7 @@ const Comments: React.FC<CommentsProps> = ({
                                                         Edit
                                                     </Button>
                                                 )}
-                                                {(hasRole("ADMIN") || comment.author?.username === currentUser) && (
+                                                {(hasRole("ADMIN") || comment.authorUsername === currentUser) && (
                                                     <Button
                                                         onClick={() => handleDelete(comment)}
                                                         variant="destructive"
@@ -430,13 +420,7 @@ const Comments: React.FC<CommentsProps> = ({
                         </PaginationItem>
                         <PaginationItem>
                             <span className="!text-sm !text-[#6c757d]">
-                                Page <input
-                                    type="number"
-                                    min="1"
-                                    value={currentPage + 1}
-                                    onChange={handlePageInput}
-                                    className="!w-10 !text-center !text-sm !text-[#6c757d] !border !border-[#dee2e6] !rounded-lg !p-[4px]"
-                                />
+                                Page {currentPage + 1}
                             </span>
                         </PaginationItem>
                         <PaginationItem>
@@ -446,6 +430,10 @@ const Comments: React.FC<CommentsProps> = ({
                                     e.preventDefault();
                                     goToNext();
                                 }}
+                                style={{ 
+                                    pointerEvents: hasNext ? 'auto' : 'none',
+                                    opacity: hasNext ? 1 : 0.5 
+                                }}
                             />
                         </PaginationItem>
                     </PaginationContent>
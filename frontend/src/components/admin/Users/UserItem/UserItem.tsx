@@ -1,11 +1,11 @@
 import React, { useState, useEffect } from 'react';
 import { NavLink, useParams, useNavigate } from 'react-router';
-import { UserDetail, Article, Comment } from '../../../../api/types';
+import { UserDetail, Article, CommentFeedItem } from '../../../../api/types';
 import { useAuth } from '../../../../api/AuthContext';
 import { hasRole } from '../../../../api/AuthApi';
 import { deleteUser, fetchUserById } from '../../../../api/UsersApi';
 import { fetchAllArticles } from '../../../../api/ArticlesApi';
-import { fetchAllComments } from '../../../../api/CommentApi';
+import { fetchCommentFeed } from '../../../../api/CommentApi';
 
 import { Button } from '@/components/ui/button';
 import { Badge } from '@/components/ui/badge';
@@ -45,7 +45,7 @@ const UserItem: React.FC<UserItemProps> = ({
     const [showArticles, setShowArticles] = useState<boolean>(false);
     const [showComments, setShowComments] = useState<boolean>(false);
     const [articles, setArticles] = useState<Article[]>([]);
-    const [comments, setComments] = useState<Comment[]>([]);
+    const [comments, setComments] = useState<CommentFeedItem[]>([]);
     const [loadingArticles, setLoadingArticles] = useState<boolean>(false);
     const [loadingComments, setLoadingComments] = useState<boolean>(false);
 
@@ -83,11 +83,9 @@ const UserItem: React.FC<UserItemProps> = ({
         if (!user?.username || !token) return;
         try {
             setLoadingComments(true);
-            const allComments = await fetchAllComments();
-            const userComments = allComments.filter(comment => 
-                comment.author?.username === user.username
-            );
-            setComments(userComments);
+            // The latest ones, the comments page lists all of them
+            const page = await fetchCommentFeed(token, { limit: 20, author: user.username });
+            setComments(page.comments);
         } catch (error) {
             console.error('Error loading comments:', error);
         } finally {
@@ -473,7 +471,7 @@ const UserItem: React.FC<UserItemProps> = ({
                                                     
                                                     <div className="!text-purple-200/70 !text-sm !leading-relaxed !mb-3 !line-clamp-2">
                                                         <LexicalContentRenderer 
-                                                            content={extractSmartSummary(article.content || '')}
+                                                            content={extractSmartSummary(article.summary || article.content || '')}
                                                             className="!border-none !bg-transparent !text-inherit"
                                                         />
                                                     </div>
@@ -517,10 +515,10 @@ const UserItem: React.FC<UserItemProps> = ({
                                                     <div className="!flex-1 !min-w-0">
                                                         <div className="!flex !items-center !justify-between !mb-2">
                                                             <span className="!text-sm !text-purple-200/70">
-                                                                On article: {comment.article?.title || 'Unknown'}
+                                                                On article: {comment.articleTitle || 'Unknown'}
                                                             </span>
                                                             <span className="!text-xs !text-purple-300/70">
-                                                                {(comment.createdAt || comment.dateCreated) ? new Date(comment.createdAt || comment.dateCreated || '').toLocaleDateString() : 'Unknown date'}
+                                                                {comment.dateCreated ? new Date(comment.dateCreated).toLocaleDateString() : 'Unknown date'}
                                                             </span>
                     </div>
                                                         <div className="!text-white !text-sm !line-clamp-2">
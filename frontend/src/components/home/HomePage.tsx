@@ -272,7 +272,7 @@ const HomePage: React.FC = () => {
                                         
                                         <div className="!text-purple-100/70 !text-sm !leading-relaxed !line-clamp-3 !mb-4">
                                             <LexicalContentRenderer 
-                                                content={extractSmartSummary(article.content || '')}
+                                                content={extractSmartSummary(article.summary || article.content || '')}
                                                 className="!bg-transparent !border-none !text-inherit"
                                             />
                                         </div>
@@ -161,7 +161,7 @@ const UserArticles: React.FC = () => {
 							{/* Content Preview */}
 							<div className="!text-gray-600 !text-sm !leading-relaxed !mb-4 !line-clamp-3">
 								<LexicalContentRenderer 
-									content={extractSmartSummary(article.content || '')}
+									content={extractSmartSummary(article.summary || article.content || '')}
 									className="!border-none !bg-transparent !text-inherit"
 								/>
 							</div>